@@ -0,0 +1,109 @@
+package cz.utb.kovarna.application.availability;
+
+import cz.utb.kovarna.domain.entity.SlotCapacity;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable remaining-capacity snapshot of every catalog slot on one date.
+ * Writers never mutate an instance; they publish a modified copy with CAS.
+ *
+ * Both counters of a slot live next to each other in one primitive array
+ * ([2 * i] = free seats, [2 * i + 1] = free reservations), so a "can this party
+ * be seated" check is two array reads. Slots not offered on the date (see SlotDateGenerator)
+ * have no remaining capacity and cannot seat anyone.
+ *
+ * The version counts the completed transactions that changed the date in memory (see
+ * SlotAvailabilityEngine.markPending); copies made by a change keep it.
+ */
+public final class DayAvailability {
+
+    private final SlotCatalog catalog;
+    private final int[] remaining;
+    private final boolean[] offered; // Shared by all copies, never modified
+    private final long version;
+
+    private DayAvailability(SlotCatalog catalog, int[] remaining, boolean[] offered, long version) {
+        this.catalog = catalog;
+        this.remaining = remaining;
+        this.offered = offered;
+        this.version = version;
+    }
+
+    /**
+     * Snapshot of one date built from its ledger rows (the dated slots).
+     */
+    static DayAvailability of(SlotCatalog catalog, Collection<SlotCapacity> ledger) {
+        int[] remaining = new int[catalog.size() * 2];
+        boolean[] offered = new boolean[catalog.size()];
+        for (SlotCapacity row : ledger) {
+            int index = catalog.indexOf(row.getId().getSlotId());
+            if (index >= 0 && row.isOffered()) {
+                offered[index] = true;
+                remaining[2 * index] = Math.max(0, catalog.maxSeats(index) - row.getBookedSeats());
+                remaining[2 * index + 1] = Math.max(0, catalog.maxReservations(index) - row.getCurrentReservations());
+            }
+        }
+        return new DayAvailability(catalog, remaining, offered, 0);
+    }
+
+    public SlotCatalog catalog() {
+        return catalog;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public boolean isOffered(int index) {
+        return offered[index];
+    }
+
+    public int remainingSeats(int index) {
+        return remaining[2 * index];
+    }
+
+    public int remainingReservations(int index) {
+        return remaining[2 * index + 1];
+    }
+
+    // Booked counts are meaningful only for offered slots
+    public int bookedSeats(int index) {
+        return catalog.maxSeats(index) - remainingSeats(index);
+    }
+
+    public int bookedReservations(int index) {
+        return catalog.maxReservations(index) - remainingReservations(index);
+    }
+
+    public boolean canSeat(int index, int guests) {
+        return offered[index] && remainingReservations(index) > 0 && remainingSeats(index) >= guests;
+    }
+
+    /**
+     * Whether both snapshots hold the same counts for the same catalog; used for snapshots that
+     * were read from the ledger instead of the matrix and therefore differ on every read.
+     */
+    public boolean sameAs(DayAvailability other) {
+        return this == other || (catalog == other.catalog
+                && Arrays.equals(remaining, other.remaining) && Arrays.equals(offered, other.offered));
+    }
+
+    /**
+     * Copy of this snapshot with the remaining seats and reservations of one slot changed.
+     */
+    DayAvailability withDelta(int index, int seatDelta, int reservationDelta) {
+        int[] copy = remaining.clone();
+        copy[2 * index] += seatDelta;
+        copy[2 * index + 1] += reservationDelta;
+        return new DayAvailability(catalog, copy, offered, version);
+    }
+
+    /**
+     * Copy of this snapshot with another version.
+     */
+    DayAvailability withVersion(long version) {
+        return new DayAvailability(catalog, remaining, offered, version);
+    }
+}
@@ -0,0 +1,159 @@
+package cz.utb.kovarna.application.availability;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for cheap, coarse-grained timeouts.
+ *
+ * Scheduling and cancelling are O(1) and lock-free (a queue offer / a volatile flag).
+ * A single worker thread advances one bucket per tick, moves newly scheduled timeouts into
+ * their buckets and hands everything that expired in that tick to the handler as one batch.
+ * Buckets are only touched by the worker, so they need no synchronization.
+ * A handler that throws is logged and counted (failedBatches); re-scheduling the failed items
+ * is up to the handler, the wheel keeps turning.
+ */
+@Slf4j
+public final class HashedTimingWheel<T> implements AutoCloseable {
+
+    /**
+     * Handle of a scheduled item; cancelled timeouts are dropped lazily by the worker.
+     */
+    public static final class Timeout<T> {
+        private final T item;
+        private final long deadline;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        private Timeout(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        public T item() {
+            return item;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Queue<Timeout<T>>> buckets;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<T>> expiryHandler;
+    private final Thread worker;
+    private final long startTime;
+    private final AtomicLong failedBatches = new AtomicLong();
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * @param tickMillis    resolution of the wheel
+     * @param wheelSize     number of buckets, rounded up to a power of two
+     * @param expiryHandler receives the items that expired in one tick, on the worker thread
+     */
+    public HashedTimingWheel(String name, long tickMillis, int wheelSize, Consumer<List<T>> expiryHandler) {
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        this.expiryHandler = expiryHandler;
+        this.startTime = System.currentTimeMillis();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedules the item to expire at the given epoch millis (or on the next tick when already past).
+     */
+    public Timeout<T> schedule(T item, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(item, deadlineMillis);
+        pending.offer(timeout);
+        return timeout;
+    }
+
+    /**
+     * Number of expiry batches whose handler threw.
+     */
+    public long failedBatches() {
+        return failedBatches.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = startTime + (tick + 1) * tickMillis;
+            long sleep = deadline - System.currentTimeMillis();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            transferPending();
+            expire(buckets.get((int) (tick & mask)), System.currentTimeMillis());
+            tick++;
+        }
+    }
+
+    private void transferPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long ticks = Math.max(0, (timeout.deadline - startTime) / tickMillis);
+            long target = Math.max(ticks, tick); // never schedule into the past
+            timeout.remainingRounds = (target - tick) / buckets.size();
+            buckets.get((int) (target & mask)).add(timeout);
+        }
+    }
+
+    private void expire(Queue<Timeout<T>> bucket, long now) {
+        List<T> expired = new ArrayList<>();
+        Iterator<Timeout<T>> it = bucket.iterator();
+        while (it.hasNext()) {
+            Timeout<T> timeout = it.next();
+            if (timeout.cancelled) {
+                it.remove();
+            } else if (timeout.remainingRounds <= 0 && timeout.deadline <= now) {
+                it.remove();
+                expired.add(timeout.item);
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            }
+        }
+        if (!expired.isEmpty()) {
+            try {
+                expiryHandler.accept(expired);
+            } catch (RuntimeException e) {
+                failedBatches.incrementAndGet();
+                log.error("Expiry handler of {} failed for {} items", worker.getName(), expired.size(), e);
+            }
+        }
+    }
+}
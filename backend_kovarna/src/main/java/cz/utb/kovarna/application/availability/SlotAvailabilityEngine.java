@@ -0,0 +1,323 @@
+package cz.utb.kovarna.application.availability;
+
+import cz.utb.kovarna.application.service.TransactionHooks;
+import cz.utb.kovarna.domain.entity.SlotCapacity;
+import cz.utb.kovarna.infrastructure.repository.ReservationSlotRepository;
+import cz.utb.kovarna.infrastructure.repository.SlotCapacityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-process availability matrix (date x slot, free seats and free reservations)
+ * used on the booking hot path.
+ *
+ * Every date holds an immutable DayAvailability behind an AtomicReference. Bookings and
+ * cancellations publish a modified copy with compare-and-set, so readers never lock.
+ * The capacity ledger in the database stays the source of truth: the matrix is preloaded
+ * at startup and periodically reconciled. Reads of dates outside the horizon are served from
+ * the ledger without being cached, so callers of the public calendar cannot grow the matrix;
+ * only write paths load such a date, until the next reconcile drops it.
+ *
+ * A write path marks the date pending (markPending) before changing it in memory and until its
+ * transaction completes. Reload and reconcile leave pending dates alone: the ledger does not show
+ * their change yet, so a snapshot read from it would undo the change. When the transaction
+ * completes, the version of the date is bumped before the pending mark is cleared, so a ledger
+ * read that started before the commit is never published over the committed change.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlotAvailabilityEngine {
+
+    private final ReservationSlotRepository slotRepository;
+    private final SlotCapacityRepository capacityRepository;
+
+    private final Map<LocalDate, AtomicReference<DayAvailability>> days = new ConcurrentHashMap<>();
+    /** Date -> number of open transactions that changed it in memory. */
+    private final Map<LocalDate, Integer> pending = new ConcurrentHashMap<>();
+    private volatile SlotCatalog catalog = SlotCatalog.of(List.of());
+
+    @Value("${availability.horizon-days:90}")
+    private int horizonDays;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    /**
+     * Rebuilds the slot catalog and preloads the booking horizon with one ledger query.
+     * Must be called whenever slot definitions change. Snapshots are replaced one by one, so
+     * readers never see a missing date; pending dates keep theirs until the next reconcile.
+     */
+    public synchronized void reload() {
+        Map<LocalDate, DayAvailability> before = new HashMap<>();
+        days.forEach((date, ref) -> before.put(date, ref.get()));
+
+        SlotCatalog fresh = SlotCatalog.of(slotRepository.findAll());
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(horizonDays);
+
+        Map<LocalDate, DayAvailability> loaded = build(fresh, from.datesUntil(to.plusDays(1)).toList(),
+                capacityRepository.findByIdReservationDateBetween(from, to));
+
+        catalog = fresh;
+        loaded.forEach((date, day) -> {
+            AtomicReference<DayAvailability> ref = days.putIfAbsent(date, new AtomicReference<>(day));
+            if (ref != null && before.containsKey(date)) {
+                replaceUnlessPending(date, ref, before.get(date), day);
+            }
+        });
+        days.keySet().removeIf(date -> !loaded.containsKey(date) && !isPending(date));
+    }
+
+    /**
+     * Marks the date as changed in memory by the current transaction until it completes; on
+     * completion the version of the date is bumped first, then the mark is cleared.
+     * Must be called before the change, inside the transaction.
+     */
+    public void markPending(LocalDate date) {
+        pending.merge(date, 1, Integer::sum);
+        TransactionHooks.afterCompletion(() -> {
+            AtomicReference<DayAvailability> ref = days.get(date);
+            if (ref != null) {
+                ref.updateAndGet(day -> day.withVersion(day.version() + 1));
+            }
+            pending.computeIfPresent(date, (d, count) -> count == 1 ? null : count - 1);
+        });
+    }
+
+    public SlotCatalog catalog() {
+        return catalog;
+    }
+
+    /**
+     * Lock-free read of the current snapshot for a date.
+     */
+    public DayAvailability getDay(LocalDate date) {
+        AtomicReference<DayAvailability> ref = days.get(date);
+        if (ref != null) {
+            return ref.get();
+        }
+        if (!inHorizon(date)) {
+            return DayAvailability.of(catalog, capacityRepository.findByIdReservationDate(date));
+        }
+        return dayRef(date).get();
+    }
+
+    /**
+     * Snapshots for every date of the range (inclusive); dates not loaded yet are read
+     * from the ledger with a single query and cached only inside the horizon.
+     */
+    public List<DayAvailability> getDays(LocalDate from, LocalDate to) {
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (!days.containsKey(date)) {
+                missing.add(date);
+            }
+        }
+        Map<LocalDate, DayAvailability> uncached = new HashMap<>();
+        if (!missing.isEmpty()) {
+            build(catalog, missing, capacityRepository.findByIdReservationDateIn(missing)).forEach((date, day) -> {
+                if (inHorizon(date)) {
+                    days.putIfAbsent(date, new AtomicReference<>(day));
+                } else {
+                    uncached.put(date, day);
+                }
+            });
+        }
+
+        List<DayAvailability> result = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            DayAvailability day = uncached.get(date);
+            result.add(day != null ? day : getDay(date));
+        }
+        return result;
+    }
+
+    /**
+     * Whether the slot is offered (generated from its template) on that date.
+     */
+    public boolean isOffered(Long slotId, LocalDate date) {
+        DayAvailability day = getDay(date);
+        int index = day.catalog().indexOf(slotId);
+        return index >= 0 && day.isOffered(index);
+    }
+
+    /**
+     * O(1) check whether the slot can still seat a party of the given size on that date.
+     */
+    public boolean canSeat(Long slotId, LocalDate date, int guests) {
+        DayAvailability day = getDay(date);
+        int index = day.catalog().indexOf(slotId);
+        return index >= 0 && day.canSeat(index, guests);
+    }
+
+    /**
+     * Takes one reservation and its seats in memory. Returns false only when the matrix knows
+     * the slot cannot seat the party; slots unknown to the matrix are left for the database to decide.
+     */
+    public boolean tryReserve(Long slotId, LocalDate date, int seats) {
+        AtomicReference<DayAvailability> ref = dayRef(date);
+        while (true) {
+            DayAvailability current = ref.get();
+            int index = current.catalog().indexOf(slotId);
+            if (index < 0) {
+                return true;
+            }
+            if (!current.canSeat(index, seats)) {
+                return false;
+            }
+            if (ref.compareAndSet(current, current.withDelta(index, -seats, -1))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives one reservation and its seats back in memory, never above the slot maximum.
+     */
+    public void release(Long slotId, LocalDate date, int seats) {
+        update(slotId, date, seats, 1);
+    }
+
+    /**
+     * Applies a guest count change of an existing reservation. Growing returns false when
+     * the matrix knows there are not enough free seats.
+     */
+    public boolean tryResize(Long slotId, LocalDate date, int seatDelta) {
+        if (seatDelta <= 0) {
+            update(slotId, date, -seatDelta, 0);
+            return true;
+        }
+        AtomicReference<DayAvailability> ref = dayRef(date);
+        while (true) {
+            DayAvailability current = ref.get();
+            int index = current.catalog().indexOf(slotId);
+            if (index < 0) {
+                return true;
+            }
+            if (current.remainingSeats(index) < seatDelta) {
+                return false;
+            }
+            if (ref.compareAndSet(current, current.withDelta(index, -seatDelta, 0))) {
+                return true;
+            }
+        }
+    }
+
+    private void update(Long slotId, LocalDate date, int freedSeats, int freedReservations) {
+        AtomicReference<DayAvailability> ref = dayRef(date);
+        while (true) {
+            DayAvailability current = ref.get();
+            int index = current.catalog().indexOf(slotId);
+            if (index < 0) {
+                return;
+            }
+            int seats = Math.min(freedSeats, current.bookedSeats(index));
+            int reservations = Math.min(freedReservations, current.bookedReservations(index));
+            if ((seats == 0 && reservations == 0)
+                    || ref.compareAndSet(current, current.withDelta(index, seats, reservations))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Re-reads the ledger for every loaded date and replaces snapshots that have no pending
+     * change and whose version did not change since before the ledger read. Dates that fell out of the horizon
+     * are dropped; so are snapshots of an older catalog, once their date is no longer pending.
+     */
+    @Scheduled(fixedDelayString = "${availability.reconcile-interval-ms:60000}",
+            initialDelayString = "${availability.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        LocalDate horizonEnd = today.plusDays(horizonDays);
+        days.keySet().removeIf(date -> (date.isBefore(today) || date.isAfter(horizonEnd)) && !isPending(date));
+
+        SlotCatalog current = catalog;
+        Map<LocalDate, DayAvailability> before = new HashMap<>();
+        days.forEach((date, ref) -> before.put(date, ref.get()));
+        if (before.isEmpty()) {
+            return;
+        }
+
+        Map<LocalDate, DayAvailability> fresh = build(current, before.keySet(),
+                capacityRepository.findByIdReservationDateIn(before.keySet()));
+
+        before.forEach((date, snapshot) -> {
+            AtomicReference<DayAvailability> ref = days.get(date);
+            if (ref != null && current == catalog) {
+                replaceUnlessPending(date, ref, snapshot, fresh.get(date));
+            }
+        });
+    }
+
+    /**
+     * Publishes a snapshot read from the ledger unless the date has a pending change or the
+     * snapshot taken before the ledger read was replaced since. A change the ledger read missed
+     * was made by a transaction that either is still open (the date is pending) or has completed
+     * after the read and bumped the version, so the expected snapshot is no longer current.
+     */
+    private void replaceUnlessPending(LocalDate date, AtomicReference<DayAvailability> ref,
+                                      DayAvailability expected, DayAvailability fresh) {
+        if (!isPending(date) && ref.get().version() == expected.version()) {
+            ref.compareAndSet(expected, fresh.withVersion(expected.version() + 1));
+        }
+    }
+
+    /**
+     * Whether the date lies in the preloaded booking horizon, whose snapshots are cached.
+     */
+    public boolean inHorizon(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        return !date.isBefore(today) && !date.isAfter(today.plusDays(horizonDays));
+    }
+
+    private boolean isPending(LocalDate date) {
+        return pending.containsKey(date);
+    }
+
+    /**
+     * The ledger is read outside the map, so a slow query never blocks other dates of the
+     * same bin; when two threads load the same date, the first one published wins.
+     */
+    private AtomicReference<DayAvailability> dayRef(LocalDate date) {
+        AtomicReference<DayAvailability> ref = days.get(date);
+        if (ref != null) {
+            return ref;
+        }
+        AtomicReference<DayAvailability> loaded =
+                new AtomicReference<>(DayAvailability.of(catalog, capacityRepository.findByIdReservationDate(date)));
+        ref = days.putIfAbsent(date, loaded);
+        return ref != null ? ref : loaded;
+    }
+
+    /**
+     * Snapshots of the given dates from their ledger rows; dates without rows have no offered slot.
+     */
+    private static Map<LocalDate, DayAvailability> build(SlotCatalog catalog, Collection<LocalDate> dates,
+                                                         Collection<SlotCapacity> ledger) {
+        Map<LocalDate, List<SlotCapacity>> rows = new HashMap<>();
+        for (SlotCapacity row : ledger) {
+            rows.computeIfAbsent(row.getId().getReservationDate(), d -> new ArrayList<>()).add(row);
+        }
+        Map<LocalDate, DayAvailability> result = new HashMap<>();
+        for (LocalDate date : dates) {
+            result.put(date, DayAvailability.of(catalog, rows.getOrDefault(date, List.of())));
+        }
+        return result;
+    }
+}
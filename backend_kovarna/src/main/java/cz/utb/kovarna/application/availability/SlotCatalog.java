@@ -0,0 +1,87 @@
+package cz.utb.kovarna.application.availability;
+
+import cz.utb.kovarna.domain.entity.ReservationSlot;
+
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, array-backed view of all reservation slots ordered by start time.
+ * The position of a slot in this catalog is its column in every DayAvailability.
+ */
+public final class SlotCatalog {
+
+    private final long[] slotIds;
+    private final LocalTime[] slotFrom;
+    private final LocalTime[] slotTo;
+    private final boolean[] active;
+    private final int[] maxReservations;
+    private final int[] maxSeats;
+    private final Map<Long, Integer> indexById;
+
+    private SlotCatalog(List<ReservationSlot> slots) {
+        int size = slots.size();
+        this.slotIds = new long[size];
+        this.slotFrom = new LocalTime[size];
+        this.slotTo = new LocalTime[size];
+        this.active = new boolean[size];
+        this.maxReservations = new int[size];
+        this.maxSeats = new int[size];
+        this.indexById = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            ReservationSlot slot = slots.get(i);
+            slotIds[i] = slot.getId();
+            slotFrom[i] = slot.getSlotFrom();
+            slotTo[i] = slot.getSlotTo();
+            active[i] = slot.isActive();
+            maxReservations[i] = slot.getMaxReservations();
+            maxSeats[i] = slot.getMaxSeats();
+            indexById.put(slot.getId(), i);
+        }
+    }
+
+    public static SlotCatalog of(List<ReservationSlot> slots) {
+        return new SlotCatalog(slots.stream()
+                .sorted(Comparator.comparing(ReservationSlot::getSlotFrom))
+                .toList());
+    }
+
+    public int size() {
+        return slotIds.length;
+    }
+
+    /**
+     * Column of the slot, or -1 when the slot is unknown.
+     */
+    public int indexOf(Long slotId) {
+        Integer index = indexById.get(slotId);
+        return index == null ? -1 : index;
+    }
+
+    public long slotId(int index) {
+        return slotIds[index];
+    }
+
+    public LocalTime slotFrom(int index) {
+        return slotFrom[index];
+    }
+
+    public LocalTime slotTo(int index) {
+        return slotTo[index];
+    }
+
+    public boolean isActive(int index) {
+        return active[index];
+    }
+
+    public int maxReservations(int index) {
+        return maxReservations[index];
+    }
+
+    public int maxSeats(int index) {
+        return maxSeats[index];
+    }
+}
@@ -0,0 +1,87 @@
+package cz.utb.kovarna.application.availability;
+
+import cz.utb.kovarna.domain.entity.DiningTable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable list of active tables ordered by size (smallest first).
+ * firstFitting(guests) is a precomputed lookup, so finding the smallest table
+ * size that can seat a party is O(1).
+ */
+public final class TableLayout {
+
+    private final long[] tableIds;
+    private final int[] seats;
+    private final int[] firstFitting;
+    private final Map<Long, Integer> indexById;
+
+    private TableLayout(long[] tableIds, int[] seats) {
+        this.tableIds = tableIds;
+        this.seats = seats;
+        this.indexById = new HashMap<>(tableIds.length * 2);
+        for (int i = 0; i < tableIds.length; i++) {
+            indexById.put(tableIds[i], i);
+        }
+
+        int largest = seats.length == 0 ? -1 : seats[seats.length - 1];
+        this.firstFitting = new int[largest + 1];
+        int table = 0;
+        for (int guests = 0; guests <= largest; guests++) {
+            while (seats[table] < guests) {
+                table++;
+            }
+            firstFitting[guests] = table;
+        }
+    }
+
+    public static TableLayout of(List<DiningTable> tables) {
+        DiningTable[] sorted = tables.stream()
+                .sorted(Comparator.comparingInt(DiningTable::getSeats).thenComparing(DiningTable::getId))
+                .toArray(DiningTable[]::new);
+        return of(Arrays.stream(sorted).mapToLong(DiningTable::getId).toArray(),
+                Arrays.stream(sorted).mapToInt(DiningTable::getSeats).toArray());
+    }
+
+    /**
+     * Layout from parallel arrays that must already be sorted by seats.
+     */
+    public static TableLayout of(long[] tableIds, int[] seats) {
+        return new TableLayout(tableIds, seats);
+    }
+
+    public int size() {
+        return tableIds.length;
+    }
+
+    public boolean isEmpty() {
+        return tableIds.length == 0;
+    }
+
+    public long tableId(int index) {
+        return tableIds[index];
+    }
+
+    public int seats(int index) {
+        return seats[index];
+    }
+
+    public int indexOf(Long tableId) {
+        Integer index = tableId == null ? null : indexById.get(tableId);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Index of the first (smallest) table that can seat the party, or size() when none can.
+     */
+    public int firstFitting(int guests) {
+        if (guests < 0) {
+            return 0;
+        }
+        return guests < firstFitting.length ? firstFitting[guests] : tableIds.length;
+    }
+}
@@ -0,0 +1,276 @@
+package cz.utb.kovarna.application.availability;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Seating plan of one slot on one date: which party sits at which table.
+ *
+ * Occupied tables are a bitmap over the size-ordered layout, so the best-fit table for a
+ * party is the first clear bit at or after layout.firstFitting(guests), and the largest
+ * free table is the last clear bit.
+ *
+ * Placing a party returns a Change that only holds its target tables; the plan itself changes
+ * when the booking transaction commits (commit) and the holds are dropped when it rolls back
+ * (rollback). Held tables and the parties of pending changes are never handed out or moved by
+ * another change. When no free table fits, a single party is moved to another free table if
+ * that frees a fitting one; only when that fails is the slot re-packed (best-fit decreasing),
+ * and even then only parties whose table actually changes are part of the change.
+ *
+ * Instances are not thread-safe; TableAssignmentService synchronizes on them.
+ */
+public final class TablePlan {
+
+    /**
+     * A party placed at a table; returned for every placement that changed.
+     */
+    public record Placement(long reservationId, long tableId) {
+    }
+
+    /**
+     * Placements computed for one booking, the new party first.
+     */
+    public static final class Change {
+        private final long reservationId;
+        private final int guests;
+        private final Map<Long, Integer> targets;
+        private final TableLayout layout;
+
+        private Change(long reservationId, int guests, Map<Long, Integer> targets, TableLayout layout) {
+            this.reservationId = reservationId;
+            this.guests = guests;
+            this.targets = targets;
+            this.layout = layout;
+        }
+
+        public List<Placement> placements() {
+            List<Placement> placements = new ArrayList<>(targets.size());
+            targets.forEach((id, index) -> placements.add(new Placement(id, layout.tableId(index))));
+            return placements;
+        }
+
+        /**
+         * Parties other than the booked one that change table.
+         */
+        public int moved() {
+            return targets.size() - 1;
+        }
+    }
+
+    private final TableLayout layout;
+    private final BitSet occupied;
+    private final BitSet held;
+    private final long[] occupant; // reservation id per table index, 0 when free
+    private final Map<Long, Integer> tableByReservation = new HashMap<>();
+    private final Map<Long, Integer> guestsByReservation = new HashMap<>();
+    private final Set<Long> pending = new HashSet<>();
+
+    public TablePlan(TableLayout layout) {
+        this.layout = layout;
+        this.occupied = new BitSet(layout.size());
+        this.held = new BitSet(layout.size());
+        this.occupant = new long[layout.size()];
+    }
+
+    public TableLayout layout() {
+        return layout;
+    }
+
+    /**
+     * Seats of the largest free table, 0 when every table is taken.
+     */
+    public int largestFreeTable() {
+        BitSet blocked = blocked(-1L);
+        int index = blocked.previousClearBit(layout.size() - 1);
+        return index < 0 ? 0 : layout.seats(index);
+    }
+
+    public boolean canSeat(int guests) {
+        return plan(-1L, guests) != null;
+    }
+
+    /**
+     * Which of the parties, tried in order, could be seated together; a party that does not fit
+     * is skipped and leaves its tables to the following ones. The plan is left unchanged.
+     */
+    public boolean[] canSeatAll(int[] guests) {
+        boolean[] seated = new boolean[guests.length];
+        List<Change> changes = new ArrayList<>(guests.length);
+        for (int i = 0; i < guests.length; i++) {
+            Change change = place(-2L - i, guests[i]);
+            if (change != null) {
+                seated[i] = true;
+                changes.add(change);
+            }
+        }
+        changes.forEach(this::rollback);
+        return seated;
+    }
+
+    /**
+     * Restores an existing placement when the plan is rebuilt from the database.
+     * Returns false when the table is unknown or already taken, so the caller can place the party anew.
+     */
+    public boolean restore(long reservationId, int guests, Long tableId) {
+        int index = layout.indexOf(tableId);
+        if (index < 0 || occupied.get(index) || layout.seats(index) < guests) {
+            return false;
+        }
+        seat(reservationId, index);
+        guestsByReservation.put(reservationId, guests);
+        return true;
+    }
+
+    /**
+     * Finds tables for a (new or resized) party and holds them until commit or rollback.
+     * Returns null when the party cannot be seated.
+     */
+    public Change place(long reservationId, int guests) {
+        Map<Long, Integer> targets = plan(reservationId, guests);
+        if (targets == null) {
+            return null;
+        }
+        targets.forEach((id, index) -> {
+            held.set(index);
+            pending.add(id);
+        });
+        return new Change(reservationId, guests, targets, layout);
+    }
+
+    /**
+     * Applies a change whose transaction committed.
+     */
+    public void commit(Change change) {
+        change.targets.forEach((id, index) -> {
+            held.clear(index);
+            pending.remove(id);
+            Integer previous = tableByReservation.get(id);
+            if (previous != null && occupant[previous] == id) {
+                occupied.clear(previous);
+                occupant[previous] = 0;
+            }
+            seat(id, index);
+        });
+        guestsByReservation.put(change.reservationId, change.guests);
+    }
+
+    /**
+     * Drops the holds of a change whose transaction rolled back; the plan is as before.
+     */
+    public void rollback(Change change) {
+        change.targets.forEach((id, index) -> {
+            held.clear(index);
+            pending.remove(id);
+        });
+    }
+
+    public void remove(long reservationId) {
+        Integer index = tableByReservation.remove(reservationId);
+        guestsByReservation.remove(reservationId);
+        if (index != null && occupant[index] == reservationId) {
+            occupied.clear(index);
+            occupant[index] = 0;
+        }
+    }
+
+    public int partyCount() {
+        return tableByReservation.size();
+    }
+
+    private void seat(long reservationId, int index) {
+        occupied.set(index);
+        occupant[index] = reservationId;
+        tableByReservation.put(reservationId, index);
+    }
+
+    /**
+     * Tables that cannot be handed out: committed and held ones, except the party's own table.
+     */
+    private BitSet blocked(long reservationId) {
+        BitSet blocked = (BitSet) occupied.clone();
+        blocked.or(held);
+        Integer own = tableByReservation.get(reservationId);
+        if (own != null && !held.get(own)) {
+            blocked.clear(own);
+        }
+        return blocked;
+    }
+
+    /**
+     * reservation -> table index for every party that needs a (new) table, or null.
+     */
+    private Map<Long, Integer> plan(long reservationId, int guests) {
+        BitSet blocked = blocked(reservationId);
+        int index = firstFree(blocked, guests);
+        if (index >= 0) {
+            return Map.of(reservationId, index);
+        }
+
+        // Move one party to another free table if that frees a table that fits
+        for (int table = layout.firstFitting(guests); table < layout.size(); table++) {
+            long party = occupant[table];
+            if (held.get(table) || party == 0 || party == reservationId || pending.contains(party)) {
+                continue;
+            }
+            int target = firstFree(blocked, guestsByReservation.get(party));
+            if (target >= 0) {
+                Map<Long, Integer> targets = new LinkedHashMap<>();
+                targets.put(reservationId, table);
+                targets.put(party, target);
+                return targets;
+            }
+        }
+        return repack(reservationId, guests);
+    }
+
+    private int firstFree(BitSet blocked, int guests) {
+        int index = blocked.nextClearBit(layout.firstFitting(guests));
+        return index < layout.size() ? index : -1;
+    }
+
+    /**
+     * Best-fit decreasing over all movable parties plus the new one; held tables and the parties
+     * of pending changes stay where they are. Only parties that change table are returned.
+     */
+    private Map<Long, Integer> repack(long reservationId, int guests) {
+        BitSet taken = (BitSet) held.clone();
+        List<long[]> parties = new ArrayList<>(guestsByReservation.size() + 1);
+        guestsByReservation.forEach((id, partyGuests) -> {
+            if (id == reservationId) {
+                return;
+            }
+            if (pending.contains(id)) {
+                taken.set(tableByReservation.get(id));
+            } else {
+                parties.add(new long[]{id, partyGuests});
+            }
+        });
+        parties.add(new long[]{reservationId, guests});
+        parties.sort((a, b) -> Long.compare(b[1], a[1]));
+
+        Map<Long, Integer> packed = new HashMap<>(parties.size() * 2);
+        for (long[] party : parties) {
+            int index = firstFree(taken, (int) party[1]);
+            if (index < 0) {
+                return null;
+            }
+            taken.set(index);
+            packed.put(party[0], index);
+        }
+
+        Map<Long, Integer> targets = new LinkedHashMap<>();
+        targets.put(reservationId, packed.get(reservationId));
+        packed.forEach((id, index) -> {
+            if (id != reservationId && !index.equals(tableByReservation.get(id))) {
+                targets.put(id, index);
+            }
+        });
+        return targets;
+    }
+}
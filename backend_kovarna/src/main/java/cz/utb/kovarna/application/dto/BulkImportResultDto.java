@@ -0,0 +1,16 @@
+package cz.utb.kovarna.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResultDto {
+    private int imported;
+    private int failed;
+    private List<BulkRowErrorDto> errors;
+}
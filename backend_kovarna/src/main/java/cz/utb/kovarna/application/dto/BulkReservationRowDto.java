@@ -0,0 +1,22 @@
+package cz.utb.kovarna.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One row of a bulk reservation import; rows are validated one by one so that
+ * a bad row is reported instead of rejecting the whole request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReservationRowDto {
+    private String username;
+    private Long slotId;
+    private LocalDate date;
+    private Integer guestCount;
+    private String status; // ACTIVE (default) or CANCELLED
+}
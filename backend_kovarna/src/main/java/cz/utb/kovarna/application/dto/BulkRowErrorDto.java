@@ -0,0 +1,13 @@
+package cz.utb.kovarna.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRowErrorDto {
+    private int row; // Zero-based index in the request
+    private String error;
+}
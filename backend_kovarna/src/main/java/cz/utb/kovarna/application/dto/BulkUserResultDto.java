@@ -0,0 +1,27 @@
+package cz.utb.kovarna.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one row of a bulk user import, streamed as one NDJSON line per row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserResultDto {
+    private int row; // Zero-based index in the request (CSV: data line after the header)
+    private String status; // CREATED or FAILED
+    private String username;
+    private Long id;
+    private String error;
+
+    public static BulkUserResultDto created(int row, String username, Long id) {
+        return new BulkUserResultDto(row, "CREATED", username, id, null);
+    }
+
+    public static BulkUserResultDto failed(int row, String username, String error) {
+        return new BulkUserResultDto(row, "FAILED", username, null, error);
+    }
+}
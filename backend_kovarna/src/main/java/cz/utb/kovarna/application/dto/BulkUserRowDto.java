@@ -0,0 +1,18 @@
+package cz.utb.kovarna.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of a bulk user import (JSON body or a CSV line with username,email,password);
+ * imported users get ROLE_CUSTOMER.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserRowDto {
+    private String username;
+    private String email;
+    private String password;
+}
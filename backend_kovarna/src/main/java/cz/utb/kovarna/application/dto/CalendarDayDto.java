@@ -0,0 +1,17 @@
+package cz.utb.kovarna.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarDayDto {
+    private LocalDate date;
+    private boolean available; // At least one slot is available
+    private List<CalendarSlotDto> slots;
+}
@@ -0,0 +1,19 @@
+package cz.utb.kovarna.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarSlotDto {
+    private Long slotId;
+    private LocalTime slotFrom;
+    private LocalTime slotTo;
+    private int remainingReservations;
+    private int remainingSeats;
+    private boolean available; // Can still seat the requested party (or anyone when guests is not given)
+}
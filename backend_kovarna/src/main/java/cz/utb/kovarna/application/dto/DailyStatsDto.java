@@ -0,0 +1,23 @@
+package cz.utb.kovarna.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyStatsDto {
+    private LocalDate date;
+    private int reservations;
+    private int covers;
+    private int capacity;
+    private double occupancyPercent;
+    private int bookings;
+    private int cancellations;
+    private int waitlisted;
+    private List<SlotStatsDto> slots;
+}
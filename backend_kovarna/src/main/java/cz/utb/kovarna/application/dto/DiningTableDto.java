@@ -0,0 +1,22 @@
+package cz.utb.kovarna.application.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class DiningTableDto {
+    private Long id;
+
+    @NotBlank(message = "Table name is required")
+    @Size(max = 50, message = "Table name must not exceed 50 characters")
+    private String name;
+
+    @Min(value = 1, message = "A table must have at least 1 seat")
+    private int seats;
+
+    private boolean active = true;
+}
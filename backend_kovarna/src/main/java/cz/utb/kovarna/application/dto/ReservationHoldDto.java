@@ -0,0 +1,23 @@
+package cz.utb.kovarna.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationHoldDto {
+    private UUID holdId;
+    private Long slotId;
+    private LocalDate date;
+    private LocalTime slotFrom;
+    private LocalTime slotTo;
+    private int guestCount;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,15 @@
+package cz.utb.kovarna.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationPageDto {
+    private List<ReservationResponseDto> items;
+    private String nextCursor; // null on the last page
+}
@@ -3,7 +3,9 @@ package cz.utb.kovarna.application.dto;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.Set;
 
 @Getter
 @Setter
@@ -14,5 +16,9 @@ public class ReservationSlotDto {
     private boolean active;
     private Integer maxReservations;
     private Integer currentReservations;
+    private Integer maxSeats;
+    private Integer bookedSeats;
+    private Set<DayOfWeek> daysOfWeek; // Weekdays the slot is offered on; all days when not given
+    private Integer largestFreeTable; // null when no tables are configured
 }
 
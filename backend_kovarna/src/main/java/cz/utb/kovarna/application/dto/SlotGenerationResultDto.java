@@ -0,0 +1,16 @@
+package cz.utb.kovarna.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotGenerationResultDto {
+    private LocalDate from;
+    private LocalDate to;
+    private int changed; // Dated slots created, closed or removed
+}
@@ -0,0 +1,29 @@
+package cz.utb.kovarna.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotStatsDto {
+    private Long slotId;
+    private LocalTime slotFrom;
+    private LocalTime slotTo;
+    private int reservations; // Currently holding a place
+    private int covers; // Guests currently booked
+    private int capacity; // Seats
+    private double occupancyPercent; // covers / capacity
+    private int bookings; // Reservations made, including later cancellations
+    private int bookedCovers;
+    private int cancellations;
+    private int cancelledCovers;
+    private int waitlisted; // Waitlist joins
+    private int movedOut; // Moved to another slot by an admin
+    private int movedOutCovers;
+    private int movedIn; // Moved here from another slot by an admin
+    private int movedInCovers;
+}
@@ -0,0 +1,21 @@
+package cz.utb.kovarna.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntryDto {
+    private Long id;
+    private Long slotId;
+    private LocalDate date;
+    private int guestCount;
+    private String status;
+    private Long reservationId; // Set once the entry has been promoted
+    private LocalDateTime createdAt;
+}
@@ -1,17 +1,26 @@
 package cz.utb.kovarna.application.service;
 
+import cz.utb.kovarna.application.availability.SlotAvailabilityEngine;
+import cz.utb.kovarna.application.dto.BulkOperationResultDto;
+import cz.utb.kovarna.application.dto.ReservationPageDto;
 import cz.utb.kovarna.application.dto.ReservationResponseDto;
 import cz.utb.kovarna.application.dto.ReservationUpdateDto;
 import cz.utb.kovarna.domain.entity.Reservation;
 import cz.utb.kovarna.domain.entity.ReservationSlot;
+import cz.utb.kovarna.infrastructure.repository.BulkChangeView;
 import cz.utb.kovarna.infrastructure.repository.ReservationRepository;
 import cz.utb.kovarna.infrastructure.repository.ReservationSlotRepository;
+import cz.utb.kovarna.infrastructure.repository.SlotCapacityRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 public class AdminReservationService {
@@ -22,10 +31,49 @@ public class AdminReservationService {
     @Autowired
     private ReservationSlotRepository reservationSlotRepository;
 
-    public List<ReservationResponseDto> getAllReservations() {
-        return reservationRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Autowired
+    private SlotCapacityService slotCapacityService;
+
+    @Autowired
+    private TableAssignmentService tableAssignmentService;
+
+    @Autowired
+    private UpcomingReservationsCache upcomingCache;
+
+    @Autowired
+    private OccupancyStatsService statsService;
+
+    @Autowired
+    private SlotCapacityRepository capacityRepository;
+
+    @Autowired
+    private SlotAvailabilityEngine availabilityEngine;
+
+    @Autowired
+    private CapacityDriftReconciler driftReconciler;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * One page of reservations, newest first, filtered by any combination of date range,
+     * status, slot and username. The cursor returned with a page continues after its last row.
+     */
+    public ReservationPageDto searchReservations(LocalDate from, LocalDate to, String status, Long slotId,
+                                                 String username, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        ReservationCursor after = ReservationCursor.parse(cursor);
+
+        List<ReservationResponseDto> rows = reservationRepository.search(from, to, status, slotId, username,
+                after.date(), after.id(), PageRequest.of(0, pageSize + 1));
+        return ReservationCursor.toPage(rows, pageSize);
     }
 
     public ReservationResponseDto getReservationById(Long id) {
@@ -39,25 +87,34 @@ public class AdminReservationService {
         Reservation reservation = reservationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Reservation not found with id: " + id));
 
-        // If slot is being changed, update availability counters
-        if (!reservation.getSlot().getId().equals(updateDto.getSlotId())) {
-            // Decrease old slot's current reservations
-            ReservationSlot oldSlot = reservation.getSlot();
-            oldSlot.setCurrentReservations(oldSlot.getCurrentReservations() - 1);
-            reservationSlotRepository.save(oldSlot);
-
-            // Find and increase new slot's current reservations
-            ReservationSlot newSlot = reservationSlotRepository.findById(updateDto.getSlotId())
+        ReservationSlot oldSlot = reservation.getSlot();
+        ReservationSlot newSlot = oldSlot;
+        if (!oldSlot.getId().equals(updateDto.getSlotId())) {
+            newSlot = reservationSlotRepository.findById(updateDto.getSlotId())
                     .orElseThrow(() -> new RuntimeException("Reservation slot not found with id: " + updateDto.getSlotId()));
+        }
 
-            if (newSlot.getCurrentReservations() >= newSlot.getMaxReservations()) {
-                throw new RuntimeException("Slot is fully booked");
-            }
-
-            newSlot.setCurrentReservations(newSlot.getCurrentReservations() + 1);
-            reservationSlotRepository.save(newSlot);
-            reservation.setSlot(newSlot);
+        // Keep the per-date ledger in sync: cancelled reservations do not hold a place
+        boolean heldPlace = !"CANCELLED".equals(reservation.getStatus());
+        boolean holdsPlace = !"CANCELLED".equals(updateDto.getStatus());
+        // A guest count change in the same slot and date only adjusts the seat delta
+        // and the table plan is re-packed incrementally
+        if (heldPlace && holdsPlace) {
+            slotCapacityService.move(oldSlot.getId(), reservation.getReservationDate(), reservation.getGuestCount(),
+                    newSlot.getId(), updateDto.getReservationDate(), updateDto.getGuestCount());
+            tableAssignmentService.move(reservation.getId(), oldSlot.getId(), reservation.getReservationDate(),
+                    newSlot.getId(), updateDto.getReservationDate(), updateDto.getGuestCount());
+        } else if (heldPlace) {
+            slotCapacityService.release(oldSlot.getId(), reservation.getReservationDate(), reservation.getGuestCount());
+            tableAssignmentService.remove(reservation.getId(), oldSlot.getId(), reservation.getReservationDate());
+        } else if (holdsPlace) {
+            slotCapacityService.reserve(newSlot.getId(), updateDto.getReservationDate(), updateDto.getGuestCount());
+            tableAssignmentService.place(reservation.getId(), newSlot.getId(), updateDto.getReservationDate(),
+                    updateDto.getGuestCount());
         }
+        statsService.recordChanged(oldSlot.getId(), reservation.getReservationDate(), reservation.getGuestCount(),
+                !heldPlace, newSlot.getId(), updateDto.getReservationDate(), updateDto.getGuestCount(), !holdsPlace);
+        reservation.setSlot(newSlot);
 
         // Update reservation fields
         reservation.setReservationDate(updateDto.getReservationDate());
@@ -65,6 +122,7 @@ public class AdminReservationService {
         reservation.setStatus(updateDto.getStatus());
 
         Reservation updated = reservationRepository.save(reservation);
+        upcomingCache.evict(reservation.getUser().getUsername());
         return convertToDto(updated);
     }
 
@@ -73,12 +131,109 @@ public class AdminReservationService {
         Reservation reservation = reservationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Reservation not found with id: " + id));
 
-        // Decrease slot's current reservations
-        ReservationSlot slot = reservation.getSlot();
-        slot.setCurrentReservations(slot.getCurrentReservations() - 1);
-        reservationSlotRepository.save(slot);
+        // Give the place back to the slot for that date
+        if (!"CANCELLED".equals(reservation.getStatus())) {
+            slotCapacityService.release(reservation.getSlot().getId(), reservation.getReservationDate(),
+                    reservation.getGuestCount());
+            tableAssignmentService.remove(reservation.getId(), reservation.getSlot().getId(),
+                    reservation.getReservationDate());
+            statsService.recordCancelled(reservation.getSlot().getId(), reservation.getReservationDate(), 1,
+                    reservation.getGuestCount());
+        }
 
         reservationRepository.deleteById(id);
+        upcomingCache.evict(reservation.getUser().getUsername());
+    }
+
+    /**
+     * Cancels every active reservation of the date, or of one slot on it, in one statement.
+     * Freed places are offered to the waitlist.
+     */
+    @Transactional
+    public BulkOperationResultDto cancelAll(LocalDate date, Long slotId) {
+        requireSlot(slotId);
+        lockDate(date);
+        List<BulkChangeView> cancelled = reservationRepository.cancelAll(date, slotId);
+
+        seatsBySlot(cancelled).forEach((slot, totals) -> {
+            statsService.recordCancelled(slot, date, totals[0], totals[1]);
+            eventPublisher.publishEvent(new SlotCapacityFreedEvent(slot, date));
+        });
+        return finishBulk(date, cancelled);
+    }
+
+    /**
+     * Closes the date, or one slot on it: no new bookings, the waitlist and every active
+     * reservation are cancelled, and the slot generator will not offer it again.
+     */
+    @Transactional
+    public BulkOperationResultDto closeDate(LocalDate date, Long slotId, String reason) {
+        requireSlot(slotId);
+        lockDate(date);
+        List<BulkChangeView> cancelled = reservationRepository.closeAll(date, slotId, reason);
+
+        seatsBySlot(cancelled).forEach((slot, totals) -> statsService.recordCancelled(slot, date, totals[0], totals[1]));
+        return finishBulk(date, cancelled);
+    }
+
+    /**
+     * Moves every active reservation of a slot on the date to another slot, all or nothing.
+     */
+    @Transactional
+    public BulkOperationResultDto moveAll(LocalDate date, Long fromSlotId, Long toSlotId) {
+        requireSlot(fromSlotId);
+        requireSlot(toSlotId);
+        if (fromSlotId == null || toSlotId == null || fromSlotId.equals(toSlotId)) {
+            throw new RuntimeException("Choose two different slots");
+        }
+        lockDate(date);
+        List<BulkChangeView> moved = reservationRepository.moveAll(date, fromSlotId, toSlotId);
+        if (moved.isEmpty()) {
+            long waiting = reservationRepository.countActive(date, fromSlotId);
+            if (waiting > 0) {
+                throw new RuntimeException("The target slot cannot take all " + waiting + " reservations");
+            }
+        }
+
+        seatsBySlot(moved).values().forEach(totals ->
+                statsService.recordMoved(fromSlotId, toSlotId, date, totals[0], totals[1]));
+        eventPublisher.publishEvent(new SlotCapacityFreedEvent(fromSlotId, date));
+        return finishBulk(date, moved);
+    }
+
+    private void requireSlot(Long slotId) {
+        if (slotId != null && availabilityEngine.catalog().indexOf(slotId) < 0) {
+            throw new RuntimeException("Reservation slot not found with id: " + slotId);
+        }
+    }
+
+    /**
+     * Waits for in-flight bookings of the date (they hold its ledger rows) before touching its reservations.
+     */
+    private void lockDate(LocalDate date) {
+        if (date == null) {
+            throw new RuntimeException("Date is required");
+        }
+        capacityRepository.lockByReservationDateIn(List.of(date));
+    }
+
+    private static Map<Long, int[]> seatsBySlot(List<BulkChangeView> rows) {
+        Map<Long, int[]> totals = new HashMap<>();
+        for (BulkChangeView row : rows) {
+            int[] slot = totals.computeIfAbsent(row.getSlotId(), id -> new int[2]);
+            slot[0]++;
+            slot[1] += row.getGuestCount();
+        }
+        return totals;
+    }
+
+    private BulkOperationResultDto finishBulk(LocalDate date, List<BulkChangeView> rows) {
+        driftReconciler.markTouched(date);
+        TransactionHooks.afterCommit(availabilityEngine::reconcile);
+        tableAssignmentService.invalidate(List.of(date));
+        rows.stream().map(BulkChangeView::getUsername).distinct().forEach(upcomingCache::evict);
+        List<Long> ids = rows.stream().map(BulkChangeView::getId).toList();
+        return new BulkOperationResultDto(ids.size(), ids);
     }
 
     private ReservationResponseDto convertToDto(Reservation reservation) {
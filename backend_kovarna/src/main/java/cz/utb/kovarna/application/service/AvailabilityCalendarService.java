@@ -0,0 +1,123 @@
+package cz.utb.kovarna.application.service;
+
+import cz.utb.kovarna.application.availability.DayAvailability;
+import cz.utb.kovarna.application.availability.SlotAvailabilityEngine;
+import cz.utb.kovarna.application.availability.SlotCatalog;
+import cz.utb.kovarna.application.dto.CalendarDayDto;
+import cz.utb.kovarna.application.dto.CalendarSlotDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remaining capacity per day x slot for a date range (the month view of the Reservations page).
+ *
+ * Days come from the in-memory availability matrix; dates outside its horizon are read
+ * from the capacity ledger with one query. The built DTOs of months overlapping the horizon are
+ * cached per (month, guests) together with the day snapshots they were built from. Every booking
+ * write publishes a new snapshot, so a cached month is rebuilt as soon as any of its days changed.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilityCalendarService {
+
+    private static final int MAX_DAYS = 62;
+    private static final int MAX_CACHED_MONTHS = 256;
+
+    private record MonthKey(YearMonth month, Integer guests) {
+    }
+
+    private record CachedMonth(List<DayAvailability> snapshots, List<CalendarDayDto> days) {
+    }
+
+    private final SlotAvailabilityEngine availabilityEngine;
+
+    private final Map<MonthKey, CachedMonth> cache = new ConcurrentHashMap<>();
+
+    public List<CalendarDayDto> getCalendar(LocalDate from, LocalDate to, Integer guests) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new RuntimeException("The calendar range can span at most " + MAX_DAYS + " days");
+        }
+        if (guests != null && (guests < 1 || guests > 10)) {
+            throw new RuntimeException("Invalid number of guests (must be between 1 and 10)");
+        }
+
+        List<CalendarDayDto> result = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            for (CalendarDayDto day : getMonth(month, guests)) {
+                if (!day.getDate().isBefore(from) && !day.getDate().isAfter(to)) {
+                    result.add(day);
+                }
+            }
+        }
+        return result;
+    }
+
+    private List<CalendarDayDto> getMonth(YearMonth month, Integer guests) {
+        MonthKey key = new MonthKey(month, guests);
+        List<DayAvailability> snapshots = availabilityEngine.getDays(month.atDay(1), month.atEndOfMonth());
+
+        CachedMonth cached = cache.get(key);
+        if (cached != null && sameSnapshots(cached.snapshots(), snapshots)) {
+            return cached.days();
+        }
+
+        List<CalendarDayDto> days = new ArrayList<>(snapshots.size());
+        for (int d = 0; d < snapshots.size(); d++) {
+            days.add(toDto(month.atDay(d + 1), snapshots.get(d), guests));
+        }
+        // Only months overlapping the booking horizon are cached, so far-off dates cannot fill the cache
+        if (!availabilityEngine.inHorizon(month.atDay(1)) && !availabilityEngine.inHorizon(month.atEndOfMonth())) {
+            return days;
+        }
+        if (cache.size() >= MAX_CACHED_MONTHS) {
+            YearMonth current = YearMonth.now();
+            cache.keySet().removeIf(k -> k.month().isBefore(current));
+            // Only months overlapping the booking horizon are cached, so far-off dates cannot fill the cache
+        if (!availabilityEngine.inHorizon(month.atDay(1)) && !availabilityEngine.inHorizon(month.atEndOfMonth())) {
+            return days;
+        }
+        if (cache.size() >= MAX_CACHED_MONTHS) {
+                cache.clear();
+            }
+        }
+        cache.put(key, new CachedMonth(snapshots, days));
+        return days;
+    }
+
+    private static boolean sameSnapshots(List<DayAvailability> a, List<DayAvailability> b) {
+        for (int i = 0; i < a.size(); i++) {
+            if (!a.get(i).sameAs(b.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static CalendarDayDto toDto(LocalDate date, DayAvailability day, Integer guests) {
+        SlotCatalog catalog = day.catalog();
+        int party = guests != null ? guests : 1;
+        boolean anyAvailable = false;
+        List<CalendarSlotDto> slots = new ArrayList<>();
+        for (int i = 0; i < catalog.size(); i++) {
+            if (!catalog.isActive(i) || !day.isOffered(i)) {
+                continue;
+            }
+            boolean available = day.canSeat(i, party);
+            anyAvailable |= available;
+            slots.add(new CalendarSlotDto(catalog.slotId(i), catalog.slotFrom(i), catalog.slotTo(i),
+                    day.remainingReservations(i), day.remainingSeats(i), available));
+        }
+        return new CalendarDayDto(date, anyAvailable, slots);
+    }
+}
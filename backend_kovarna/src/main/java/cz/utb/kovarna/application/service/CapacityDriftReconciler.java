@@ -0,0 +1,155 @@
+package cz.utb.kovarna.application.service;
+
+import cz.utb.kovarna.application.availability.SlotAvailabilityEngine;
+import cz.utb.kovarna.infrastructure.repository.CapacityDriftView;
+import cz.utb.kovarna.infrastructure.repository.SlotCapacityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Safety net for the capacity ledger (slot_date_capacity). Write paths adjust the counters
+ * incrementally, so a missed or doubled adjustment (a bug, a manual SQL fix) makes them drift.
+ * This job recomputes occupancy from reservations and holds and rewrites the rows that differ.
+ *
+ * Runs are incremental: SlotCapacityService marks every date it touches and only those dates are
+ * checked, in windows of up to window-days dates per aggregate query. A nightly sweep covers a
+ * fixed range around today (and the first run after startup does the same).
+ *
+ * Metrics: capacity.drift.rows, capacity.drift.reservations and capacity.drift.seats count the
+ * corrections (absolute differences), capacity.drift.pending-dates the dates waiting for a check.
+ */
+@Service
+@Slf4j
+public class CapacityDriftReconciler {
+
+    private final SlotCapacityRepository capacityRepository;
+    private final SlotAvailabilityEngine availabilityEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<LocalDate> touched = ConcurrentHashMap.newKeySet();
+
+    private final Counter driftRows;
+    private final Counter driftReservations;
+    private final Counter driftSeats;
+
+    @Value("${capacity.reconcile.window-days:31}")
+    private int windowDays;
+
+    @Value("${capacity.reconcile.sweep-days-back:7}")
+    private int sweepDaysBack;
+
+    @Value("${capacity.reconcile.sweep-days-ahead:365}")
+    private int sweepDaysAhead;
+
+    public CapacityDriftReconciler(SlotCapacityRepository capacityRepository,
+                                   SlotAvailabilityEngine availabilityEngine,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.capacityRepository = capacityRepository;
+        this.availabilityEngine = availabilityEngine;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.driftRows = Counter.builder("capacity.drift.rows")
+                .description("Ledger rows corrected by the drift reconciler")
+                .register(meterRegistry);
+        this.driftReservations = Counter.builder("capacity.drift.reservations")
+                .description("Absolute reservation count drift corrected")
+                .register(meterRegistry);
+        this.driftSeats = Counter.builder("capacity.drift.seats")
+                .description("Absolute booked seat drift corrected")
+                .register(meterRegistry);
+        Gauge.builder("capacity.drift.pending-dates", touched, Set::size)
+                .description("Dates waiting for a drift check")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a date for the next incremental run.
+     */
+    public void markTouched(LocalDate date) {
+        touched.add(date);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void queueStartupSweep() {
+        queueSweep();
+    }
+
+    @Scheduled(cron = "${capacity.reconcile.sweep-cron:0 0 4 * * *}")
+    public void queueSweep() {
+        LocalDate today = LocalDate.now();
+        for (LocalDate date = today.minusDays(sweepDaysBack); !date.isAfter(today.plusDays(sweepDaysAhead));
+             date = date.plusDays(1)) {
+            touched.add(date);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${capacity.reconcile.interval-ms:300000}",
+            initialDelayString = "${capacity.reconcile.interval-ms:300000}")
+    public void reconcile() {
+        if (touched.isEmpty()) {
+            return;
+        }
+        List<LocalDate> dates = new ArrayList<>(touched);
+        // A date touched again while it is being checked stays queued for the next run
+        touched.removeAll(dates);
+        dates.sort(null);
+
+        for (int from = 0; from < dates.size(); from += windowDays) {
+            List<LocalDate> window = dates.subList(from, Math.min(from + windowDays, dates.size()));
+            try {
+                reconcileWindow(window);
+            } catch (RuntimeException e) {
+                log.warn("Capacity drift check failed for {} dates from {}, retrying on the next run",
+                        window.size(), window.get(0), e);
+                touched.addAll(window);
+            }
+        }
+    }
+
+    private void reconcileWindow(List<LocalDate> window) {
+        List<CapacityDriftView> drift = transactionTemplate.execute(status -> {
+            capacityRepository.lockByReservationDateIn(window);
+            List<CapacityDriftView> rows = capacityRepository.correctDrift(window);
+            for (CapacityDriftView row : rows) {
+                // Places given back are offered to the waitlist once the correction commits
+                if (row.getActualReservations() < row.getLedgerReservations()
+                        || row.getActualSeats() < row.getLedgerSeats()) {
+                    eventPublisher.publishEvent(new SlotCapacityFreedEvent(row.getSlotId(), row.getReservationDate()));
+                }
+            }
+            return rows;
+        });
+        if (drift == null || drift.isEmpty()) {
+            return;
+        }
+
+        for (CapacityDriftView row : drift) {
+            driftReservations.increment(Math.abs(row.getActualReservations() - row.getLedgerReservations()));
+            driftSeats.increment(Math.abs(row.getActualSeats() - row.getLedgerSeats()));
+            log.warn("Corrected capacity drift for slot {} on {}: reservations {} -> {}, seats {} -> {}",
+                    row.getSlotId(), row.getReservationDate(), row.getLedgerReservations(),
+                    row.getActualReservations(), row.getLedgerSeats(), row.getActualSeats());
+        }
+        driftRows.increment(drift.size());
+        availabilityEngine.reconcile();
+    }
+}
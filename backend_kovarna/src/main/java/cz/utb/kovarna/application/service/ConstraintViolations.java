@@ -0,0 +1,45 @@
+package cz.utb.kovarna.application.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Tells apart the database constraints behind a DataIntegrityViolationException,
+ * so a write can report which rule it broke instead of guessing.
+ */
+public final class ConstraintViolations {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private ConstraintViolations() {
+    }
+
+    /**
+     * Whether a unique index or constraint was violated. Checked by SQL state, because on a
+     * partitioned table PostgreSQL reports the name of the partition's index.
+     */
+    public static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        ConstraintViolationException cause = cause(e);
+        return cause != null && UNIQUE_VIOLATION.equals(cause.getSQLState());
+    }
+
+    /**
+     * Name of the violated constraint in lower case, or an empty string when unknown.
+     */
+    public static String constraintName(DataIntegrityViolationException e) {
+        ConstraintViolationException cause = cause(e);
+        String name = cause != null ? cause.getConstraintName() : null;
+        return name != null ? name.toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static ConstraintViolationException cause(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException violation) {
+                return violation;
+            }
+        }
+        return null;
+    }
+}
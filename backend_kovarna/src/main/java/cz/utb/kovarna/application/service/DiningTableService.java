@@ -0,0 +1,71 @@
+package cz.utb.kovarna.application.service;
+
+import cz.utb.kovarna.application.dto.DiningTableDto;
+import cz.utb.kovarna.domain.entity.DiningTable;
+import cz.utb.kovarna.infrastructure.repository.DiningTableRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class DiningTableService {
+
+    private final DiningTableRepository repository;
+    private final TableAssignmentService tableAssignmentService;
+
+    public List<DiningTableDto> getAllTables() {
+        return repository.findAll()
+                .stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+    }
+
+    public DiningTableDto createTable(DiningTableDto dto) {
+        if (repository.existsByName(dto.getName())) {
+            throw new IllegalArgumentException("Table with this name already exists");
+        }
+
+        DiningTable table = new DiningTable();
+        table.setName(dto.getName());
+        table.setSeats(dto.getSeats());
+        table.setActive(dto.isActive());
+
+        DiningTableDto saved = mapToDto(repository.save(table));
+        tableAssignmentService.reloadLayout();
+        return saved;
+    }
+
+    public DiningTableDto updateTable(Long id, DiningTableDto dto) {
+        DiningTable table = repository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Table not found"));
+
+        if (!table.getName().equals(dto.getName()) && repository.existsByName(dto.getName())) {
+            throw new IllegalArgumentException("Table with this name already exists");
+        }
+
+        table.setName(dto.getName());
+        table.setSeats(dto.getSeats());
+        table.setActive(dto.isActive());
+
+        DiningTableDto saved = mapToDto(repository.save(table));
+        tableAssignmentService.reloadLayout();
+        return saved;
+    }
+
+    public void deleteTable(Long id) {
+        repository.deleteById(id);
+        tableAssignmentService.reloadLayout();
+    }
+
+    private DiningTableDto mapToDto(DiningTable table) {
+        DiningTableDto dto = new DiningTableDto();
+        dto.setId(table.getId());
+        dto.setName(table.getName());
+        dto.setSeats(table.getSeats());
+        dto.setActive(table.isActive());
+        return dto;
+    }
+}
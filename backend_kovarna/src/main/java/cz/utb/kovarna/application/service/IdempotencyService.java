@@ -0,0 +1,187 @@
+package cz.utb.kovarna.application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.utb.kovarna.domain.entity.IdempotencyRecord;
+import cz.utb.kovarna.domain.entity.IdempotencyRecordId;
+import cz.utb.kovarna.infrastructure.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response of a request retried with the same Idempotency-Key.
+ *
+ * Completed responses live in a bounded, TTL-evicting in-memory cache in front of the
+ * idempotency_keys table, so a retry is answered without touching slot capacity.
+ * The first request claims its key with an INSERT ... ON CONFLICT DO NOTHING; a concurrent
+ * duplicate loses the claim and gets 409 instead of running the request a second time.
+ * A running request refreshes its claim every third of idempotency.claim-timeout-seconds, so only
+ * a claim that was not refreshed for the whole timeout (its request crashed or hung) is taken over
+ * by a retry of the same request. Every claim carries a random token, and a request completes or
+ * abandons its claim only while the token is still its own.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private record StoredResponse(String requestHash, String body) {
+    }
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Cache<IdempotencyRecordId, StoredResponse> cache;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    /** Claims of the requests running on this instance -> their token. */
+    private final Map<IdempotencyRecordId, String> running = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.cache-size:10000}") long cacheSize,
+                              @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${idempotency.claim-timeout-seconds:60}") long claimTimeoutSeconds) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Runs the action once per (username, key) and returns its stored result for every retry.
+     * A failed action releases the key so that the client can try again.
+     */
+    public <T> T execute(String username, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key.isBlank() || key.length() > 100) {
+            throw new RuntimeException("Idempotency-Key must be 1 to 100 characters long");
+        }
+        IdempotencyRecordId id = new IdempotencyRecordId(username, key);
+        String requestHash = hash(request);
+
+        StoredResponse stored = cache.getIfPresent(id);
+        if (stored != null) {
+            return replay(stored, requestHash, responseType);
+        }
+
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        if (repository.claim(username, key, requestHash, token, now, now.minus(claimTimeout)) == 0) {
+            IdempotencyRecord existing = repository.findById(id).orElse(null);
+            if (existing == null) {
+                // The other request failed and released the key in the meantime
+                return execute(username, key, request, responseType, action);
+            }
+            if (!existing.getRequestHash().equals(requestHash)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used with a different request");
+            }
+            if (!"COMPLETED".equals(existing.getStatus())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still being processed");
+            }
+            stored = new StoredResponse(existing.getRequestHash(), existing.getResponseBody());
+            cache.put(id, stored);
+            return replay(stored, requestHash, responseType);
+        }
+
+        T response;
+        running.put(id, token);
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            repository.abandon(username, key, token);
+            throw e;
+        } finally {
+            running.remove(id, token);
+        }
+        String body = toJson(response);
+        // Cached first: the action has committed, so a retry on this instance must replay it
+        // even when the row cannot be completed
+        cache.put(id, new StoredResponse(requestHash, body));
+        try {
+            if (repository.complete(username, key, token, body) == 0) {
+                log.warn("Idempotency-Key {} of {} was taken over while its request was running",
+                        key, username);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Idempotency-Key {} of {} could not be completed; the claim expires in {}s",
+                    key, username, claimTimeout.toSeconds(), e);
+        }
+        return response;
+    }
+
+    /**
+     * Refreshes the claims of the requests still running, so a retry does not take them over.
+     */
+    @Scheduled(fixedDelayString = "#{${idempotency.claim-timeout-seconds:60} * 1000 / 3}")
+    public void refreshRunningClaims() {
+        LocalDateTime now = LocalDateTime.now();
+        running.forEach((id, token) -> {
+            try {
+                if (repository.refresh(id.getUsername(), id.getIdempotencyKey(), token, now) == 0
+                        && token.equals(running.get(id))) {
+                    log.warn("Idempotency-Key {} of {} was taken over while its request was running",
+                            id.getIdempotencyKey(), id.getUsername());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Claim of Idempotency-Key {} of {} could not be refreshed",
+                        id.getIdempotencyKey(), id.getUsername(), e);
+            }
+        });
+    }
+
+    @Scheduled(cron = "0 15 * * * *")
+    public void purgeExpired() {
+        repository.purgeOlderThan(LocalDateTime.now().minus(ttl));
+    }
+
+    private <T> T replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used with a different request");
+        }
+        try {
+            return objectMapper.readValue(stored.body(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response cannot be read", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(toJson(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored", e);
+        }
+    }
+}
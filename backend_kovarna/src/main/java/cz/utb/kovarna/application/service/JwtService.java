@@ -1,67 +1,180 @@
 package cz.utb.kovarna.application.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import cz.utb.kovarna.infrastructure.config.UserPrincipal;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String ENABLED_CLAIM = "enabled";
+
+    private final TokenRevocationList revocationList;
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private long expirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    /** SHA-256 of recently verified tokens; an entry lives until its token expires. */
+    private Cache<String, VerifiedToken> verified;
+
+    /**
+     * The part of a verified token the application uses. Tokens issued before the user claims
+     * were added have no userId and need the user loaded from the database.
+     */
+    public record VerifiedToken(String username, Long userId, List<String> roles, boolean enabled,
+                                Instant issuedAt, Instant expiresAt) {
+
+        public boolean isExpired() {
+            return !expiresAt.isAfter(Instant.now());
+        }
+
+        public boolean isSelfContained() {
+            return userId != null;
+        }
+
+        public List<GrantedAuthority> authorities() {
+            return roles.stream().<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verified = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(digest, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, VerifiedToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        // Id, roles and enabled flag travel in the token, so requests are authenticated without a user lookup
+        Long userId = userPrincipal instanceof UserPrincipal principal ? principal.getUser().getId() : null;
         return Jwts.builder()
                 .subject(userPrincipal.getUsername())
+                .claim(USER_ID_CLAIM, userId)
+                .claim(ROLES_CLAIM, userPrincipal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
+                .claim(ENABLED_CLAIM, userPrincipal.isEnabled())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expirationMs))
-                .signWith(getSigningKey())              // algorithm auto-detected
+                .signWith(signingKey)              // algorithm auto-detected
                 .compact();
     }
 
+    /**
+     * Checks the signature and expiry of the token once and remembers the result,
+     * so a token seen again skips the HMAC and JSON parsing. Revocation is checked on every call.
+     *
+     * @throws JwtException when the token is malformed, forged, expired or revoked
+     */
+    public VerifiedToken verify(String token) {
+        String digest = digest(token);
+        VerifiedToken result = verified.getIfPresent(digest);
+        if (result == null || result.isExpired()) {
+            result = parse(token);
+            verified.put(digest, result);
+        }
+
+        if (result.isSelfContained() && revocationList.isRevoked(result.userId(), result.issuedAt())) {
+            throw new JwtException("Token has been revoked");
+        }
+        return result;
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getSubject() == null || claims.getExpiration() == null || claims.getIssuedAt() == null) {
+            throw new JwtException("Token has no subject, issue or expiration time");
+        }
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        return new VerifiedToken(
+                claims.getSubject(),
+                userId == null ? null : userId.longValue(),
+                roles == null ? List.of() : roles.stream().map(String::valueOf).toList(),
+                !Boolean.FALSE.equals(claims.get(ENABLED_CLAIM, Boolean.class)),
+                claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant());
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).username();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parser.parseSignedClaims(token).getPayload());
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            VerifiedToken verifiedToken = verify(token);
+            return verifiedToken.username().equals(userDetails.getUsername()) && !verifiedToken.isExpired();
         } catch (Exception e) {
             return false;
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
-}
\ No newline at end of file
+}
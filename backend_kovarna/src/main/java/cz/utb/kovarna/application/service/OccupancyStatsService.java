@@ -0,0 +1,215 @@
+package cz.utb.kovarna.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.utb.kovarna.application.availability.SlotAvailabilityEngine;
+import cz.utb.kovarna.application.availability.SlotCatalog;
+import cz.utb.kovarna.application.dto.DailyStatsDto;
+import cz.utb.kovarna.application.dto.SlotStatsDto;
+import cz.utb.kovarna.domain.entity.SlotCapacity;
+import cz.utb.kovarna.domain.entity.SlotDemandStats;
+import cz.utb.kovarna.infrastructure.repository.SlotCapacityRepository;
+import cz.utb.kovarna.infrastructure.repository.SlotDemandStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Occupancy and demand statistics for the admin dashboard.
+ *
+ * Occupancy comes from the capacity ledger (slot_date_capacity), demand from the
+ * slot_demand_stats rollup; both are kept up to date by the reservation write paths, which
+ * report bookings, cancellations and waitlist joins here. Reads therefore touch one rollup row
+ * per slot and day, never the reservations themselves. Built days are cached; a recorded change
+ * evicts its date and entries expire after a few minutes to pick up ledger drift corrections.
+ */
+@Service
+@RequiredArgsConstructor
+public class OccupancyStatsService {
+
+    private static final int MAX_DAYS = 366;
+
+    private record CachedDay(SlotCatalog catalog, DailyStatsDto day) {
+    }
+
+    private final SlotDemandStatsRepository demandRepository;
+    private final SlotCapacityRepository capacityRepository;
+    private final SlotAvailabilityEngine availabilityEngine;
+
+    private final Cache<LocalDate, CachedDay> cache = Caffeine.newBuilder()
+            .maximumSize(2_000)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .build();
+
+    /**
+     * A reservation was made.
+     */
+    @Transactional
+    public void recordBooked(Long slotId, LocalDate date, int reservations, int covers) {
+        add(slotId, date, reservations, covers, 0, 0, 0);
+    }
+
+    /**
+     * A reservation was cancelled or deleted (negative numbers: a cancellation was undone).
+     */
+    @Transactional
+    public void recordCancelled(Long slotId, LocalDate date, int reservations, int covers) {
+        add(slotId, date, 0, 0, reservations, covers, 0);
+    }
+
+    /**
+     * An admin edit of a reservation: the old version is taken out of the rollup and the new one added,
+     * so moves and guest count changes do not count as new demand.
+     */
+    @Transactional
+    public void recordChanged(Long oldSlotId, LocalDate oldDate, int oldGuests, boolean wasCancelled,
+                              Long newSlotId, LocalDate newDate, int newGuests, boolean isCancelled) {
+        if (oldSlotId.equals(newSlotId) && oldDate.equals(newDate) && oldGuests == newGuests
+                && wasCancelled == isCancelled) {
+            return;
+        }
+        add(oldSlotId, oldDate, -1, -oldGuests, wasCancelled ? -1 : 0, wasCancelled ? -oldGuests : 0, 0);
+        add(newSlotId, newDate, 1, newGuests, isCancelled ? 1 : 0, isCancelled ? newGuests : 0, 0);
+    }
+
+    @Transactional
+    public void recordWaitlisted(Long slotId, LocalDate date) {
+        add(slotId, date, 0, 0, 0, 0, 1);
+    }
+
+    /**
+     * Reservations an admin moved from one slot to another on the same date; recorded apart from
+     * bookings, so the move is not counted as demand for either slot.
+     */
+    @Transactional
+    public void recordMoved(Long fromSlotId, Long toSlotId, LocalDate date, int reservations, int covers) {
+        demandRepository.addMoved(fromSlotId, date, reservations, covers, 0, 0);
+        demandRepository.addMoved(toSlotId, date, 0, 0, reservations, covers);
+        TransactionHooks.afterCommit(() -> cache.invalidate(date));
+    }
+
+    private void add(Long slotId, LocalDate date, int bookings, int bookedCovers,
+                        int cancellations, int cancelledCovers, int waitlisted) {
+        demandRepository.add(slotId, date, bookings, bookedCovers, cancellations, cancelledCovers, waitlisted);
+        TransactionHooks.afterCommit(() -> cache.invalidate(date));
+    }
+
+    public List<DailyStatsDto> getStats(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new RuntimeException("Statistics can span at most " + MAX_DAYS + " days");
+        }
+
+        SlotCatalog catalog = availabilityEngine.catalog();
+        List<LocalDate> dates = from.datesUntil(to.plusDays(1)).toList();
+        Map<LocalDate, DailyStatsDto> days = new HashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate date : dates) {
+            CachedDay cached = cache.getIfPresent(date);
+            if (cached != null && cached.catalog() == catalog) {
+                days.put(date, cached.day());
+            } else {
+                firstMissing = firstMissing == null ? date : firstMissing;
+                lastMissing = date;
+            }
+        }
+        if (firstMissing != null) {
+            load(catalog, firstMissing, lastMissing, days);
+        }
+
+        List<DailyStatsDto> result = new ArrayList<>(dates.size());
+        dates.forEach(date -> result.add(days.get(date)));
+        return result;
+    }
+
+    /**
+     * Builds the days between from and to that are not in the map yet, with one range query per rollup table.
+     */
+    private void load(SlotCatalog catalog, LocalDate from, LocalDate to, Map<LocalDate, DailyStatsDto> days) {
+        Map<LocalDate, Map<Long, SlotCapacity>> occupancy = new HashMap<>();
+        for (SlotCapacity row : capacityRepository.findByIdReservationDateBetween(from, to)) {
+            occupancy.computeIfAbsent(row.getId().getReservationDate(), d -> new HashMap<>())
+                    .put(row.getId().getSlotId(), row);
+        }
+        Map<LocalDate, Map<Long, SlotDemandStats>> demand = new HashMap<>();
+        for (SlotDemandStats row : demandRepository.findByIdReservationDateBetween(from, to)) {
+            demand.computeIfAbsent(row.getId().getReservationDate(), d -> new HashMap<>())
+                    .put(row.getId().getSlotId(), row);
+        }
+
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (days.containsKey(date)) {
+                continue;
+            }
+            DailyStatsDto day = buildDay(catalog, date, occupancy.getOrDefault(date, Map.of()),
+                    demand.getOrDefault(date, Map.of()));
+            cache.put(date, new CachedDay(catalog, day));
+            days.put(date, day);
+        }
+    }
+
+    private static DailyStatsDto buildDay(SlotCatalog catalog, LocalDate date,
+                                          Map<Long, SlotCapacity> occupancy, Map<Long, SlotDemandStats> demand) {
+        DailyStatsDto day = new DailyStatsDto();
+        day.setDate(date);
+        List<SlotStatsDto> slots = new ArrayList<>();
+        for (int i = 0; i < catalog.size(); i++) {
+            long slotId = catalog.slotId(i);
+            SlotCapacity used = occupancy.get(slotId);
+            SlotDemandStats asked = demand.get(slotId);
+            // Slots not offered that day are listed only when they were booked or asked for
+            boolean offered = used != null && used.isOffered();
+            if (!offered && (used == null || used.getCurrentReservations() == 0) && asked == null) {
+                continue;
+            }
+
+            SlotStatsDto slot = new SlotStatsDto();
+            slot.setSlotId(slotId);
+            slot.setSlotFrom(catalog.slotFrom(i));
+            slot.setSlotTo(catalog.slotTo(i));
+            slot.setCapacity(offered ? catalog.maxSeats(i) : 0);
+            if (used != null) {
+                slot.setReservations(used.getCurrentReservations());
+                slot.setCovers(used.getBookedSeats());
+            }
+            if (asked != null) {
+                slot.setBookings(asked.getBookings());
+                slot.setBookedCovers(asked.getBookedCovers());
+                slot.setCancellations(asked.getCancellations());
+                slot.setCancelledCovers(asked.getCancelledCovers());
+                slot.setWaitlisted(asked.getWaitlisted());
+                slot.setMovedOut(asked.getMovedOut());
+                slot.setMovedOutCovers(asked.getMovedOutCovers());
+                slot.setMovedIn(asked.getMovedIn());
+                slot.setMovedInCovers(asked.getMovedInCovers());
+            }
+            slot.setOccupancyPercent(percent(slot.getCovers(), slot.getCapacity()));
+            slots.add(slot);
+
+            day.setReservations(day.getReservations() + slot.getReservations());
+            day.setCovers(day.getCovers() + slot.getCovers());
+            day.setCapacity(day.getCapacity() + slot.getCapacity());
+            day.setBookings(day.getBookings() + slot.getBookings());
+            day.setCancellations(day.getCancellations() + slot.getCancellations());
+            day.setWaitlisted(day.getWaitlisted() + slot.getWaitlisted());
+        }
+        day.setOccupancyPercent(percent(day.getCovers(), day.getCapacity()));
+        day.setSlots(slots);
+        return day;
+    }
+
+    private static double percent(int part, int whole) {
+        return whole == 0 ? 0 : Math.round(1000.0 * part / whole) / 10.0;
+    }
+}
@@ -17,6 +17,9 @@ public class OpeningHoursService {
     @Autowired
     private OpeningHoursRepository openingHoursRepository;
 
+    @Autowired
+    private SlotDateGenerator slotDateGenerator;
+
     public List<OpeningHoursDto> getAllOpeningHours() {
         return openingHoursRepository.findAll().stream()
                 .map(this::convertToDto)
@@ -49,6 +52,8 @@ public class OpeningHoursService {
 
         OpeningHours openingHours = convertToEntity(dto);
         OpeningHours saved = openingHoursRepository.save(openingHours);
+        // Dated slots follow the opening hours once they are committed
+        TransactionHooks.afterCommit(slotDateGenerator::onTemplatesChanged);
         return convertToDto(saved);
     }
 
@@ -75,6 +80,7 @@ public class OpeningHoursService {
         existing.setNote(dto.getNote());
 
         OpeningHours updated = openingHoursRepository.save(existing);
+        TransactionHooks.afterCommit(slotDateGenerator::onTemplatesChanged);
         return convertToDto(updated);
     }
 
@@ -84,6 +90,7 @@ public class OpeningHoursService {
             throw new RuntimeException("Opening hours not found with id: " + id);
         }
         openingHoursRepository.deleteById(id);
+        TransactionHooks.afterCommit(slotDateGenerator::onTemplatesChanged);
     }
 
     private OpeningHoursDto convertToDto(OpeningHours entity) {
@@ -0,0 +1,42 @@
+package cz.utb.kovarna.application.service;
+
+import cz.utb.kovarna.application.dto.ReservationPageDto;
+import cz.utb.kovarna.application.dto.ReservationResponseDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keyset position (reservation_date, id) of the last row of a page, passed to clients
+ * as an opaque "date_id" string.
+ */
+public record ReservationCursor(LocalDate date, Long id) {
+
+    /**
+     * Parses a client supplied cursor; null stands for the first page.
+     */
+    public static ReservationCursor parse(String cursor) {
+        if (cursor == null) {
+            return new ReservationCursor(null, null);
+        }
+        String[] parts = cursor.split("_", 2);
+        try {
+            return new ReservationCursor(LocalDate.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Builds a page from rows fetched with one row more than the page size;
+     * that extra row only tells that a next page exists.
+     */
+    public static ReservationPageDto toPage(List<ReservationResponseDto> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new ReservationPageDto(rows, null);
+        }
+        List<ReservationResponseDto> page = rows.subList(0, pageSize);
+        ReservationResponseDto last = page.get(pageSize - 1);
+        return new ReservationPageDto(page, last.getReservationDate() + "_" + last.getId());
+    }
+}
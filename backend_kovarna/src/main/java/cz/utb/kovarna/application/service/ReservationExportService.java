@@ -0,0 +1,109 @@
+package cz.utb.kovarna.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.utb.kovarna.application.dto.ReservationResponseDto;
+import cz.utb.kovarna.infrastructure.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams reservations as CSV or NDJSON for accounting.
+ *
+ * Rows are read in keyset chunks with the same projection query as the admin listing,
+ * each chunk in its own short statement, so memory stays constant and no transaction
+ * is held open for the duration of the download.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReservationExportService {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private final ReservationRepository reservationRepository;
+    private final ObjectMapper objectMapper;
+
+    public void export(LocalDate from, LocalDate to, String status, Long slotId, String username,
+                       Format format, boolean gzip, OutputStream target) throws IOException {
+        OutputStream out = gzip ? new GZIPOutputStream(target, 64 * 1024) : target;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+
+        if (format == Format.CSV) {
+            writer.write("id,username,reservation_date,slot_from,slot_to,slot_id,guest_count,status\n");
+        }
+
+        LocalDate cursorDate = null;
+        Long cursorId = null;
+        while (true) {
+            List<ReservationResponseDto> chunk = reservationRepository.search(from, to, status, slotId, username,
+                    cursorDate, cursorId, PageRequest.of(0, CHUNK_SIZE));
+            for (ReservationResponseDto row : chunk) {
+                if (format == Format.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+            }
+            if (chunk.size() < CHUNK_SIZE) {
+                break;
+            }
+            ReservationResponseDto last = chunk.get(chunk.size() - 1);
+            cursorDate = last.getReservationDate();
+            cursorId = last.getId();
+            writer.flush();
+        }
+
+        writer.flush();
+        if (gzip) {
+            ((GZIPOutputStream) out).finish();
+        }
+    }
+
+    private static void writeCsv(Writer writer, ReservationResponseDto row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writer.write(csvField(row.getUsername()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getReservationDate()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getSlotFrom()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getSlotTo()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getSlotId()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getGuestCount()));
+        writer.write(',');
+        writer.write(csvField(row.getStatus()));
+        writer.write('\n');
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        // A cell starting like a formula would be evaluated by spreadsheet programs (CSV injection)
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,225 @@
+package cz.utb.kovarna.application.service;
+
+import cz.utb.kovarna.application.availability.HashedTimingWheel;
+import cz.utb.kovarna.application.availability.SlotAvailabilityEngine;
+import cz.utb.kovarna.application.availability.SlotCatalog;
+import cz.utb.kovarna.application.dto.ReservationHoldDto;
+import cz.utb.kovarna.application.dto.ReservationRequestDto;
+import cz.utb.kovarna.application.dto.ReservationResponseDto;
+import cz.utb.kovarna.domain.entity.Reservation;
+import cz.utb.kovarna.domain.entity.ReservationHold;
+import cz.utb.kovarna.domain.entity.User;
+import cz.utb.kovarna.infrastructure.repository.ReservationHoldRepository;
+import cz.utb.kovarna.infrastructure.repository.ReservationRepository;
+import cz.utb.kovarna.infrastructure.repository.ReservationSlotRepository;
+import cz.utb.kovarna.infrastructure.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time-limited holds: a hold takes one reservation and its seats in the capacity ledger
+ * (and so in getAvailableSlots) while the customer fills in the form, and is either
+ * confirmed into a Reservation or released when it expires.
+ *
+ * Expiry is driven by an in-memory hashed timing wheel instead of polling the database;
+ * open holds are re-scheduled from the table at startup.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReservationHoldService {
+
+    private final ReservationHoldRepository holdRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationSlotRepository slotRepository;
+    private final UserRepository userRepository;
+    private final SlotCapacityService capacityService;
+    private final SlotAvailabilityEngine availabilityEngine;
+    private final TableAssignmentService tableAssignmentService;
+    private final TransactionTemplate transactionTemplate;
+    private final UpcomingReservationsCache upcomingCache;
+    private final OccupancyStatsService statsService;
+
+    private final Map<UUID, HashedTimingWheel.Timeout<UUID>> timeouts = new ConcurrentHashMap<>();
+    private HashedTimingWheel<UUID> wheel;
+
+    @Value("${reservation.hold-minutes:10}")
+    private int holdMinutes;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        wheel = new HashedTimingWheel<>("hold-expiry", 1000, 512, this::expire);
+        holdRepository.findAllExpiries().forEach(h -> schedule(h.getId(), h.getExpiresAt()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (wheel != null) {
+            wheel.close();
+        }
+    }
+
+    /**
+     * Holds a place for the user, replacing any hold the user already has.
+     */
+    @Transactional
+    public ReservationHoldDto createHold(String username, ReservationRequestDto dto) {
+        SlotCatalog catalog = availabilityEngine.catalog();
+        int slotIndex = catalog.indexOf(dto.getSlotId());
+        if (slotIndex < 0) {
+            throw new RuntimeException("Slot not found");
+        }
+        if (dto.getGuestCount() < 1 || dto.getGuestCount() > 10) {
+            throw new RuntimeException("Invalid number of guests (must be between 1 and 10)");
+        }
+        if (!availabilityEngine.isOffered(dto.getSlotId(), dto.getDate())) {
+            throw new RuntimeException("This slot is not offered on the selected date");
+        }
+        if (!tableAssignmentService.canSeat(dto.getSlotId(), dto.getDate(), dto.getGuestCount())) {
+            throw new RuntimeException("No table is free for a party of " + dto.getGuestCount());
+        }
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // One open hold per user
+        holdRepository.findByUserIdForUpdate(user.getId()).ifPresent(previous -> {
+            release(previous);
+            holdRepository.flush();
+        });
+
+        capacityService.reserve(dto.getSlotId(), dto.getDate(), dto.getGuestCount());
+
+        ReservationHold hold = new ReservationHold();
+        hold.setId(UUID.randomUUID());
+        hold.setUser(user);
+        hold.setSlot(slotRepository.getReferenceById(dto.getSlotId()));
+        hold.setReservationDate(dto.getDate());
+        hold.setGuestCount(dto.getGuestCount());
+        hold.setExpiresAt(LocalDateTime.now().plusMinutes(holdMinutes));
+        holdRepository.save(hold);
+
+        UUID holdId = hold.getId();
+        LocalDateTime expiresAt = hold.getExpiresAt();
+        TransactionHooks.afterCommit(() -> schedule(holdId, expiresAt));
+
+        return new ReservationHoldDto(holdId, dto.getSlotId(), dto.getDate(), catalog.slotFrom(slotIndex),
+                catalog.slotTo(slotIndex), dto.getGuestCount(), expiresAt);
+    }
+
+    /**
+     * Turns the user's hold into a reservation. The place is already taken in the ledger,
+     * so only the reservation row is inserted and the party is seated at a table.
+     */
+    @Transactional
+    public ReservationResponseDto confirmHold(String username, UUID holdId) {
+        ReservationHold hold = findOwnHold(username, holdId);
+        if (!hold.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new RuntimeException("Hold has expired");
+        }
+        // The slot may have been closed since the hold was taken
+        if (!availabilityEngine.isOffered(hold.getSlot().getId(), hold.getReservationDate())) {
+            throw new RuntimeException("This slot is not offered on the selected date");
+        }
+
+        Reservation reservation = new Reservation();
+        reservation.setUser(hold.getUser());
+        reservation.setSlot(hold.getSlot());
+        reservation.setReservationDate(hold.getReservationDate());
+        reservation.setGuestCount(hold.getGuestCount());
+        reservation.setStatus("ACTIVE");
+        try {
+            reservation = reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isUniqueViolation(e)) {
+                throw new RuntimeException("You already have a reservation on this day");
+            }
+            throw e;
+        }
+        holdRepository.delete(hold);
+
+        tableAssignmentService.place(reservation.getId(), hold.getSlot().getId(), hold.getReservationDate(),
+                hold.getGuestCount());
+        TransactionHooks.afterCommit(() -> cancelTimeout(holdId));
+        statsService.recordBooked(hold.getSlot().getId(), hold.getReservationDate(), 1, hold.getGuestCount());
+        upcomingCache.evict(username);
+
+        ReservationResponseDto response = new ReservationResponseDto();
+        response.setId(reservation.getId());
+        response.setReservationId(reservation.getId()); // Backward compatibility
+        response.setUsername(username);
+        response.setDate(reservation.getReservationDate());
+        response.setReservationDate(reservation.getReservationDate()); // Backward compatibility
+        response.setSlotFrom(hold.getSlot().getSlotFrom());
+        response.setSlotTo(hold.getSlot().getSlotTo());
+        response.setSlotId(hold.getSlot().getId());
+        response.setGuestCount(reservation.getGuestCount());
+        response.setStatus(reservation.getStatus());
+        return response;
+    }
+
+    @Transactional
+    public void cancelHold(String username, UUID holdId) {
+        release(findOwnHold(username, holdId));
+    }
+
+    private ReservationHold findOwnHold(String username, UUID holdId) {
+        ReservationHold hold = holdRepository.findByIdForUpdate(holdId)
+                .orElseThrow(() -> new RuntimeException("Hold not found or already expired"));
+        if (!hold.getUser().getUsername().equals(username)) {
+            throw new RuntimeException("You can only use your own holds");
+        }
+        return hold;
+    }
+
+    private void release(ReservationHold hold) {
+        capacityService.release(hold.getSlot().getId(), hold.getReservationDate(), hold.getGuestCount());
+        holdRepository.delete(hold);
+        UUID holdId = hold.getId();
+        TransactionHooks.afterCommit(() -> cancelTimeout(holdId));
+    }
+
+    /**
+     * Releases the holds that expired in one tick of the wheel, in a single transaction.
+     * Runs on the wheel thread.
+     */
+    private void expire(List<UUID> holdIds) {
+        holdIds.forEach(timeouts::remove);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    holdRepository.findExpiredForUpdate(holdIds, LocalDateTime.now()).forEach(this::release));
+        } catch (RuntimeException e) {
+            // Try again later rather than leaving the places held until the next restart
+            log.warn("Releasing {} expired holds failed, retrying in a minute", holdIds.size(), e);
+            LocalDateTime retryAt = LocalDateTime.now().plusMinutes(1);
+            holdIds.forEach(id -> schedule(id, retryAt));
+        }
+    }
+
+    private void schedule(UUID holdId, LocalDateTime expiresAt) {
+        long deadline = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        timeouts.put(holdId, wheel.schedule(holdId, deadline));
+    }
+
+    private void cancelTimeout(UUID holdId) {
+        HashedTimingWheel.Timeout<UUID> timeout = timeouts.remove(holdId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+}
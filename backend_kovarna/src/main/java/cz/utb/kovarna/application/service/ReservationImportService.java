@@ -0,0 +1,257 @@
+package cz.utb.kovarna.application.service;
+
+import cz.utb.kovarna.application.availability.SlotAvailabilityEngine;
+import cz.utb.kovarna.application.availability.SlotCatalog;
+import cz.utb.kovarna.application.dto.BulkImportResultDto;
+import cz.utb.kovarna.application.dto.BulkReservationRowDto;
+import cz.utb.kovarna.application.dto.BulkRowErrorDto;
+import cz.utb.kovarna.domain.entity.Reservation;
+import cz.utb.kovarna.domain.entity.SlotCapacity;
+import cz.utb.kovarna.domain.entity.SlotCapacityId;
+import cz.utb.kovarna.infrastructure.repository.ReservationRepository;
+import cz.utb.kovarna.infrastructure.repository.ReservationSlotRepository;
+import cz.utb.kovarna.infrastructure.repository.SlotCapacityRepository;
+import cz.utb.kovarna.infrastructure.repository.UserDateView;
+import cz.utb.kovarna.infrastructure.repository.UserIdView;
+import cz.utb.kovarna.infrastructure.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Bulk import of reservations (season migration, phone bookings from a spreadsheet).
+ *
+ * Rows are validated against users, slots, existing reservations and per-(slot, date) capacity
+ * entirely in memory, using a handful of set-based queries. The ledger is then updated with one
+ * conditional statement per (slot, date) and the accepted rows are inserted in JDBC batches.
+ * Imported reservations are not seated at tables; the table plans of the affected dates are
+ * rebuilt on next use.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReservationImportService {
+
+    private static final int MAX_ROWS = 10_000;
+    private static final int CHUNK_SIZE = 500;
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+    private static final Comparator<SlotCapacityId> LEDGER_ORDER =
+            Comparator.comparing(SlotCapacityId::getSlotId).thenComparing(SlotCapacityId::getReservationDate);
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationSlotRepository slotRepository;
+    private final UserRepository userRepository;
+    private final SlotCapacityRepository capacityRepository;
+    private final SlotAvailabilityEngine availabilityEngine;
+    private final TableAssignmentService tableAssignmentService;
+    private final ReservationPartitionMaintenance partitionMaintenance;
+    private final UpcomingReservationsCache upcomingCache;
+    private final CapacityDriftReconciler driftReconciler;
+    private final OccupancyStatsService statsService;
+    private final EntityManager entityManager;
+
+    @Transactional
+    public BulkImportResultDto importReservations(List<BulkReservationRowDto> rows) {
+        if (rows.isEmpty() || rows.size() > MAX_ROWS) {
+            throw new RuntimeException("A bulk import must contain 1 to " + MAX_ROWS + " rows");
+        }
+
+        SlotCatalog catalog = availabilityEngine.catalog();
+        Map<String, Long> userIds = resolveUsers(rows);
+        Set<String> bookedDays = activeUserDays(rows, userIds);
+        Map<SlotCapacityId, int[]> used = ledger(rows);
+
+        List<BulkRowErrorDto> errors = new ArrayList<>();
+        // Sorted, so concurrent imports lock the ledger rows in the same order and cannot deadlock
+        Map<SlotCapacityId, int[]> taken = new TreeMap<>(LEDGER_ORDER);
+        Map<SlotCapacityId, List<Integer>> rowsByGroup = new HashMap<>();
+        List<Integer> accepted = new ArrayList<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            BulkReservationRowDto row = rows.get(i);
+            String error = validate(row, catalog, userIds);
+            if (error == null && isActive(row)) {
+                int slotIndex = catalog.indexOf(row.getSlotId());
+                SlotCapacityId key = new SlotCapacityId(row.getSlotId(), row.getDate());
+                int[] before = used.getOrDefault(key, new int[2]);
+                int[] delta = taken.computeIfAbsent(key, k -> new int[2]);
+                String day = userIds.get(row.getUsername()) + "_" + row.getDate();
+
+                if (bookedDays.contains(day)) {
+                    error = "User already has a reservation on this day";
+                } else if (before[0] + delta[0] + 1 > catalog.maxReservations(slotIndex)
+                        || before[1] + delta[1] + row.getGuestCount() > catalog.maxSeats(slotIndex)) {
+                    error = "This slot is fully booked";
+                } else {
+                    delta[0]++;
+                    delta[1] += row.getGuestCount();
+                    bookedDays.add(day);
+                    rowsByGroup.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+                }
+            }
+            if (error != null) {
+                errors.add(new BulkRowErrorDto(i, error));
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        // Take the capacity per (slot, date); a group that lost a race against live bookings is rejected
+        taken.forEach((key, delta) -> {
+            if (delta[0] > 0 && capacityRepository.tryReserveMany(key.getSlotId(), key.getReservationDate(),
+                    delta[0], delta[1]) == 0) {
+                List<Integer> lost = rowsByGroup.get(key);
+                lost.forEach(i -> errors.add(new BulkRowErrorDto(i, "This slot became full during the import")));
+                accepted.removeAll(lost);
+            }
+        });
+
+        Set<LocalDate> dates = new HashSet<>();
+        accepted.forEach(i -> dates.add(rows.get(i).getDate()));
+        partitionMaintenance.ensurePartitions(dates);
+        dates.forEach(driftReconciler::markTouched);
+        insert(rows, accepted, userIds);
+        recordStats(rows, accepted);
+
+        TransactionHooks.afterCommit(availabilityEngine::reconcile);
+        tableAssignmentService.invalidate(dates);
+        accepted.stream().map(i -> rows.get(i).getUsername()).distinct().forEach(upcomingCache::evict);
+
+        errors.sort((a, b) -> Integer.compare(a.getRow(), b.getRow()));
+        return new BulkImportResultDto(accepted.size(), errors.size(), errors);
+    }
+
+    private String validate(BulkReservationRowDto row, SlotCatalog catalog, Map<String, Long> userIds) {
+        if (row.getUsername() == null || !userIds.containsKey(row.getUsername())) {
+            return "User not found";
+        }
+        if (row.getSlotId() == null || catalog.indexOf(row.getSlotId()) < 0) {
+            return "Slot not found";
+        }
+        if (row.getDate() == null) {
+            return "Reservation date is required";
+        }
+        if (row.getGuestCount() == null || row.getGuestCount() < 1 || row.getGuestCount() > 10) {
+            return "Invalid number of guests (must be between 1 and 10)";
+        }
+        if (row.getStatus() != null && !"ACTIVE".equals(row.getStatus()) && !"CANCELLED".equals(row.getStatus())) {
+            return "Status must be ACTIVE or CANCELLED";
+        }
+        return null;
+    }
+
+    private static boolean isActive(BulkReservationRowDto row) {
+        return !"CANCELLED".equals(row.getStatus());
+    }
+
+    private Map<String, Long> resolveUsers(List<BulkReservationRowDto> rows) {
+        List<String> usernames = rows.stream()
+                .map(BulkReservationRowDto::getUsername)
+                .filter(u -> u != null)
+                .distinct()
+                .toList();
+        Map<String, Long> ids = new HashMap<>();
+        for (int from = 0; from < usernames.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = usernames.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, usernames.size()));
+            for (UserIdView user : userRepository.findIdsByUsernameIn(chunk)) {
+                ids.put(user.getUsername(), user.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * "userId_date" keys of the active reservations the imported users already have in the import's date range.
+     */
+    private Set<String> activeUserDays(List<BulkReservationRowDto> rows, Map<String, Long> userIds) {
+        Set<String> days = new HashSet<>();
+        LocalDate min = rows.stream().map(BulkReservationRowDto::getDate).filter(d -> d != null)
+                .min(LocalDate::compareTo).orElse(null);
+        LocalDate max = rows.stream().map(BulkReservationRowDto::getDate).filter(d -> d != null)
+                .max(LocalDate::compareTo).orElse(null);
+        if (min == null) {
+            return days;
+        }
+        List<Long> ids = new ArrayList<>(userIds.values());
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size()));
+            for (UserDateView day : reservationRepository.findActiveUserDates(chunk, min, max)) {
+                days.add(day.getUserId() + "_" + day.getReservationDate());
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Current ledger usage ([reservations, seats]) of every (slot, date) touched by the import.
+     */
+    private Map<SlotCapacityId, int[]> ledger(List<BulkReservationRowDto> rows) {
+        Set<LocalDate> dates = new HashSet<>();
+        rows.forEach(row -> {
+            if (row.getDate() != null) {
+                dates.add(row.getDate());
+            }
+        });
+        Map<SlotCapacityId, int[]> used = new HashMap<>();
+        if (!dates.isEmpty()) {
+            for (SlotCapacity row : capacityRepository.findByIdReservationDateIn(dates)) {
+                used.put(row.getId(), new int[]{row.getCurrentReservations(), row.getBookedSeats()});
+            }
+        }
+        return used;
+    }
+
+    /**
+     * Adds the imported rows to the demand rollup, one update per (slot, date).
+     */
+    private void recordStats(List<BulkReservationRowDto> rows, List<Integer> accepted) {
+        // [bookings, covers, cancellations, cancelled covers]
+        Map<SlotCapacityId, int[]> deltas = new HashMap<>();
+        for (int i : accepted) {
+            BulkReservationRowDto row = rows.get(i);
+            int[] delta = deltas.computeIfAbsent(new SlotCapacityId(row.getSlotId(), row.getDate()), k -> new int[4]);
+            delta[0]++;
+            delta[1] += row.getGuestCount();
+            if (!isActive(row)) {
+                delta[2]++;
+                delta[3] += row.getGuestCount();
+            }
+        }
+        deltas.forEach((key, delta) -> {
+            statsService.recordBooked(key.getSlotId(), key.getReservationDate(), delta[0], delta[1]);
+            if (delta[2] > 0) {
+                statsService.recordCancelled(key.getSlotId(), key.getReservationDate(), delta[2], delta[3]);
+            }
+        });
+    }
+
+    private void insert(List<BulkReservationRowDto> rows, List<Integer> accepted, Map<String, Long> userIds) {
+        for (int from = 0; from < accepted.size(); from += CHUNK_SIZE) {
+            List<Reservation> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int i : accepted.subList(from, Math.min(from + CHUNK_SIZE, accepted.size()))) {
+                BulkReservationRowDto row = rows.get(i);
+                Reservation reservation = new Reservation();
+                reservation.setUser(userRepository.getReferenceById(userIds.get(row.getUsername())));
+                reservation.setSlot(slotRepository.getReferenceById(row.getSlotId()));
+                reservation.setReservationDate(row.getDate());
+                reservation.setGuestCount(row.getGuestCount());
+                reservation.setStatus(isActive(row) ? "ACTIVE" : "CANCELLED");
+                chunk.add(reservation);
+            }
+            reservationRepository.saveAll(chunk);
+            // Send the batch and keep the persistence context small
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+}
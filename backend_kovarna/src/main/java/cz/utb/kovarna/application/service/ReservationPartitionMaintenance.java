@@ -0,0 +1,102 @@
+package cz.utb.kovarna.application.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of reservations (see V18) in shape:
+ * creates partitions ahead of time so new bookings never land in the default partition,
+ * and moves months older than the retention period to reservations_archive, a few per run
+ * so that each DETACH holds its lock only briefly.
+ * A month that cannot be created is logged and skipped, so it does not stop the later ones.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReservationPartitionMaintenance {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${reservations.partitions.months-ahead:12}")
+    private int monthsAhead;
+
+    @Value("${reservations.partitions.retention-months:24}")
+    private int retentionMonths;
+
+    @Value("${reservations.partitions.archive-batch-size:3}")
+    private int archiveBatchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        createFuturePartitions();
+    }
+
+    @Scheduled(cron = "${reservations.partitions.cron:0 30 3 * * *}")
+    public void maintain() {
+        createFuturePartitions();
+        archiveOldPartitions();
+    }
+
+    public void createFuturePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                createPartition(month);
+            } catch (DataAccessException e) {
+                log.warn("Creating the reservations partition of {} failed, retrying on the next run", month, e);
+            }
+        }
+    }
+
+    /**
+     * Makes sure the months of the given dates have their partitions (e.g. before importing past bookings).
+     */
+    public void ensurePartitions(Collection<LocalDate> dates) {
+        dates.stream()
+                .map(YearMonth::from)
+                .distinct()
+                .forEach(this::createPartition);
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.queryForList("SELECT create_reservation_partition(?)", month.atDay(1));
+    }
+
+    /**
+     * Archives up to archive-batch-size of the oldest months that are past retention.
+     */
+    public void archiveOldPartitions() {
+        LocalDate cutoff = YearMonth.now().minusMonths(retentionMonths).atDay(1);
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'reservations' AND c.relname ~ '^reservations_p[0-9]{4}_[0-9]{2}$'
+                ORDER BY c.relname
+                """, String.class);
+
+        int archived = 0;
+        for (String partition : partitions) {
+            LocalDate month = YearMonth.of(Integer.parseInt(partition.substring(14, 18)),
+                    Integer.parseInt(partition.substring(19, 21))).atDay(1);
+            if (!month.isBefore(cutoff) || archived >= archiveBatchSize) {
+                break;
+            }
+            jdbcTemplate.queryForList("SELECT archive_reservation_partition(?)", month);
+            archived++;
+        }
+    }
+}
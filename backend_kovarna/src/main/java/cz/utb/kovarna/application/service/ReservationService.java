@@ -1,5 +1,6 @@
 package cz.utb.kovarna.application.service;
 
+import cz.utb.kovarna.application.dto.ReservationPageDto;
 import cz.utb.kovarna.application.dto.ReservationRequestDto;
 import cz.utb.kovarna.application.dto.ReservationResponseDto;
 
@@ -8,5 +9,7 @@ import java.util.List;
 public interface ReservationService {
     ReservationResponseDto createReservation(String username, ReservationRequestDto dto);
     List<ReservationResponseDto> getUserReservations(String username);
+    ReservationPageDto getUpcomingReservations(String username, String cursor, Integer limit);
+    ReservationPageDto getReservationHistory(String username, String cursor, Integer limit);
     void deleteReservationByUser(Long reservationId, String username);
 }
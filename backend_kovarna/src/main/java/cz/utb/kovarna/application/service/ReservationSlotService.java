@@ -1,5 +1,8 @@
 package cz.utb.kovarna.application.service;
 
+import cz.utb.kovarna.application.availability.DayAvailability;
+import cz.utb.kovarna.application.availability.SlotAvailabilityEngine;
+import cz.utb.kovarna.application.availability.SlotCatalog;
 import cz.utb.kovarna.application.dto.ReservationSlotDto;
 import cz.utb.kovarna.domain.entity.ReservationSlot;
 import cz.utb.kovarna.infrastructure.repository.ReservationSlotRepository;
@@ -7,6 +10,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -15,26 +20,41 @@ import java.util.stream.Collectors;
 public class ReservationSlotService {
 
     private final ReservationSlotRepository repository;
-
+    private final SlotAvailabilityEngine availabilityEngine;
+    private final TableAssignmentService tableAssignmentService;
+    private final SlotDateGenerator slotDateGenerator;
+
+    /**
+     * Every slot template; currentReservations and bookedSeats are today's occupancy,
+     * read from the availability matrix (0 when the slot is not offered today).
+     */
     public List<ReservationSlotDto> getAllSlots() {
+        DayAvailability today = availabilityEngine.getDay(LocalDate.now());
         return repository.findAll()
                 .stream()
-                .map(this::mapToDto)
+                .map(slot -> {
+                    ReservationSlotDto dto = mapToDto(slot);
+                    int index = today.catalog().indexOf(slot.getId());
+                    boolean offered = index >= 0 && today.isOffered(index);
+                    dto.setCurrentReservations(offered ? today.bookedReservations(index) : 0);
+                    dto.setBookedSeats(offered ? today.bookedSeats(index) : 0);
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
 
     public ReservationSlotDto createSlot(ReservationSlotDto dto) {
         validateSlot(dto);
 
-        boolean exists = repository.existsBySlotFromAndSlotTo(dto.getSlotFrom(), dto.getSlotTo());
-        if (exists) {
-            throw new IllegalArgumentException("Slot with this time range already exists");
-        }
+        // The same time range may be used by several templates on different weekdays
+        int weekdays = SlotDateGenerator.toMask(dto.getDaysOfWeek());
+        checkOverlap(null, dto.getSlotFrom(), dto.getSlotTo(), weekdays);
 
         ReservationSlot slot = new ReservationSlot();
         slot.setSlotFrom(dto.getSlotFrom());
         slot.setSlotTo(dto.getSlotTo());
         slot.setActive(dto.isActive());
+        slot.setWeekdays(weekdays);
 
         // Set maxReservations with default of 10 if not provided
         if (dto.getMaxReservations() != null && dto.getMaxReservations() > 0) {
@@ -43,10 +63,16 @@ public class ReservationSlotService {
             slot.setMaxReservations(10); // Default value
         }
 
-        // Initialize currentReservations to 0
-        slot.setCurrentReservations(0);
+        // Seat capacity defaults to the reservation limit (entered as "max capacity (people)")
+        if (dto.getMaxSeats() != null && dto.getMaxSeats() > 0) {
+            slot.setMaxSeats(dto.getMaxSeats());
+        } else {
+            slot.setMaxSeats(slot.getMaxReservations());
+        }
 
-        return mapToDto(repository.save(slot));
+        ReservationSlotDto saved = mapToDto(repository.save(slot));
+        slotDateGenerator.onTemplatesChanged();
+        return saved;
     }
 
     public ReservationSlotDto updateSlot(Long id, ReservationSlotDto dto) {
@@ -56,27 +82,68 @@ public class ReservationSlotService {
         slot.setSlotFrom(dto.getSlotFrom());
         slot.setSlotTo(dto.getSlotTo());
         slot.setActive(dto.isActive());
+        if (dto.getDaysOfWeek() != null) {
+            slot.setWeekdays(SlotDateGenerator.toMask(dto.getDaysOfWeek()));
+        }
+        checkOverlap(id, slot.getSlotFrom(), slot.getSlotTo(), slot.getWeekdays());
 
         // Update maxReservations if provided
         if (dto.getMaxReservations() != null && dto.getMaxReservations() > 0) {
             slot.setMaxReservations(dto.getMaxReservations());
         }
+        if (dto.getMaxSeats() != null && dto.getMaxSeats() > 0) {
+            slot.setMaxSeats(dto.getMaxSeats());
+        }
 
-        // Note: currentReservations is managed by reservation creation/deletion logic
-        // and should not be directly updated here
+        // Note: occupancy is tracked per date in the capacity ledger (SlotCapacityService)
+        // and is not updated here; the dated slots follow the new times, weekdays and active flag
 
-        return mapToDto(repository.save(slot));
+        ReservationSlotDto saved = mapToDto(repository.save(slot));
+        slotDateGenerator.onTemplatesChanged();
+        return saved;
     }
 
     public void deleteSlot(Long id) {
         repository.deleteById(id);
+        availabilityEngine.reload();
     }
 
     public List<ReservationSlotDto> getAvailableSlots(LocalDate date) {
-        return repository.findAll().stream()
-                .filter(ReservationSlot::isActive)
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return getAvailableSlots(date, null);
+    }
+
+    /**
+     * Active slots for the date; when guests is given, only slots that can still seat the party
+     * (enough free seats and, when tables are configured, a table that fits).
+     */
+    public List<ReservationSlotDto> getAvailableSlots(LocalDate date, Integer guests) {
+        // Served from the in-memory availability matrix, no database access
+        DayAvailability day = availabilityEngine.getDay(date);
+        SlotCatalog catalog = day.catalog();
+
+        List<ReservationSlotDto> slots = new ArrayList<>();
+        for (int i = 0; i < catalog.size(); i++) {
+            if (!catalog.isActive(i) || !day.isOffered(i)) {
+                continue;
+            }
+            if (guests != null && !(day.canSeat(i, guests)
+                    && tableAssignmentService.canSeat(catalog.slotId(i), date, guests))) {
+                continue;
+            }
+            ReservationSlotDto dto = mapToDto(day, i);
+            dto.setLargestFreeTable(tableAssignmentService.largestFreeTable(catalog.slotId(i), date));
+            slots.add(dto);
+        }
+        return slots;
+    }
+
+    private void checkOverlap(Long id, LocalTime slotFrom, LocalTime slotTo, int weekdays) {
+        for (ReservationSlot other : repository.findBySlotFromAndSlotTo(slotFrom, slotTo)) {
+            if (!other.getId().equals(id) && (other.getWeekdays() & weekdays) != 0) {
+                throw new IllegalArgumentException("Slot with this time range already exists on "
+                        + SlotDateGenerator.fromMask(other.getWeekdays() & weekdays));
+            }
+        }
     }
 
     private void validateSlot(ReservationSlotDto dto) {
@@ -95,7 +162,22 @@ public class ReservationSlotService {
         dto.setSlotTo(slot.getSlotTo());
         dto.setActive(slot.isActive());
         dto.setMaxReservations(slot.getMaxReservations());
-        dto.setCurrentReservations(slot.getCurrentReservations());
+        dto.setMaxSeats(slot.getMaxSeats());
+        dto.setDaysOfWeek(SlotDateGenerator.fromMask(slot.getWeekdays()));
+        return dto;
+    }
+
+    private ReservationSlotDto mapToDto(DayAvailability day, int index) {
+        SlotCatalog catalog = day.catalog();
+        ReservationSlotDto dto = new ReservationSlotDto();
+        dto.setId(catalog.slotId(index));
+        dto.setSlotFrom(catalog.slotFrom(index));
+        dto.setSlotTo(catalog.slotTo(index));
+        dto.setActive(catalog.isActive(index));
+        dto.setMaxReservations(catalog.maxReservations(index));
+        dto.setCurrentReservations(day.bookedReservations(index));
+        dto.setMaxSeats(catalog.maxSeats(index));
+        dto.setBookedSeats(day.bookedSeats(index));
         return dto;
     }
 }
@@ -0,0 +1,9 @@
+package cz.utb.kovarna.application.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published by SlotCapacityService whenever a slot on a date gets a place or seats back.
+ */
+public record SlotCapacityFreedEvent(Long slotId, LocalDate date) {
+}
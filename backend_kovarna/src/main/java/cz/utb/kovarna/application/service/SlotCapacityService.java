@@ -0,0 +1,109 @@
+package cz.utb.kovarna.application.service;
+
+import cz.utb.kovarna.application.availability.SlotAvailabilityEngine;
+import cz.utb.kovarna.infrastructure.repository.SlotCapacityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Single entry point for changing per-date slot occupancy (reservations and seats).
+ * All reservation write paths go through here so the ledger and the in-memory
+ * availability matrix stay consistent. Touched dates are later re-checked by CapacityDriftReconciler.
+ */
+@Service
+@RequiredArgsConstructor
+public class SlotCapacityService {
+
+    private final SlotCapacityRepository capacityRepository;
+    private final SlotAvailabilityEngine availabilityEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CapacityDriftReconciler driftReconciler;
+
+    /**
+     * Takes one reservation and the party's seats in the slot on the given date,
+     * or fails when the slot cannot seat the party.
+     * The in-memory matrix rejects full slots without a database round trip; the ledger
+     * update remains the authoritative check.
+     */
+    @Transactional
+    public void reserve(Long slotId, LocalDate date, int seats) {
+        reserveInMemory(slotId, date, seats);
+        if (capacityRepository.tryReserve(slotId, date, seats) == 0) {
+            throw new RuntimeException("This slot is fully booked");
+        }
+    }
+
+    /**
+     * Takes only the in-memory place, for callers whose own statement updates the ledger
+     * (see ReservationRepository.book). The place is given back if the transaction rolls back.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserveInMemory(Long slotId, LocalDate date, int seats) {
+        availabilityEngine.markPending(date);
+        if (!availabilityEngine.tryReserve(slotId, date, seats)) {
+            throw new RuntimeException("This slot is fully booked");
+        }
+        TransactionHooks.afterRollback(() -> availabilityEngine.release(slotId, date, seats));
+        driftReconciler.markTouched(date);
+    }
+
+    /**
+     * Gives one reservation and its seats back. Listeners of SlotCapacityFreedEvent
+     * (the waitlist) are notified once the transaction commits.
+     */
+    @Transactional
+    public void release(Long slotId, LocalDate date, int seats) {
+        capacityRepository.release(slotId, date, seats);
+        driftReconciler.markTouched(date);
+        availabilityEngine.markPending(date);
+        TransactionHooks.afterCommit(() -> availabilityEngine.release(slotId, date, seats));
+        eventPublisher.publishEvent(new SlotCapacityFreedEvent(slotId, date));
+    }
+
+    /**
+     * Applies a guest count change of a reservation that stays in the same slot and date,
+     * touching only the seat delta instead of recomputing the slot.
+     */
+    @Transactional
+    public void resize(Long slotId, LocalDate date, int oldSeats, int newSeats) {
+        int delta = newSeats - oldSeats;
+        if (delta == 0) {
+            return;
+        }
+        availabilityEngine.markPending(date);
+        if (delta > 0) {
+            if (!availabilityEngine.tryResize(slotId, date, delta)) {
+                throw new RuntimeException("Not enough free seats in this slot");
+            }
+            TransactionHooks.afterRollback(() -> availabilityEngine.tryResize(slotId, date, -delta));
+        } else {
+            TransactionHooks.afterCommit(() -> availabilityEngine.tryResize(slotId, date, delta));
+            eventPublisher.publishEvent(new SlotCapacityFreedEvent(slotId, date));
+        }
+
+        if (capacityRepository.resizeSeats(slotId, date, delta) == 0) {
+            throw new RuntimeException("Not enough free seats in this slot");
+        }
+        driftReconciler.markTouched(date);
+    }
+
+    /**
+     * Moves a party between two (slot, date) pairs. The new place is taken first,
+     * so a full target leaves the original booking untouched.
+     */
+    @Transactional
+    public void move(Long fromSlotId, LocalDate fromDate, int fromSeats,
+                     Long toSlotId, LocalDate toDate, int toSeats) {
+        if (fromSlotId.equals(toSlotId) && fromDate.equals(toDate)) {
+            resize(fromSlotId, fromDate, fromSeats, toSeats);
+            return;
+        }
+        reserve(toSlotId, toDate, toSeats);
+        release(fromSlotId, fromDate, fromSeats);
+    }
+}
@@ -0,0 +1,116 @@
+package cz.utb.kovarna.application.service;
+
+import cz.utb.kovarna.application.availability.SlotAvailabilityEngine;
+import cz.utb.kovarna.application.dto.SlotGenerationResultDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Materializes the slot templates (reservation_slots with their weekdays) into dated slots,
+ * the offered rows of slot_date_capacity, for the weeks ahead (see V22).
+ *
+ * Generation is one set-based statement per call and idempotent: it only writes (slot, date)
+ * pairs whose offer changed. It runs at startup, nightly to extend the calendar, and after
+ * every change of slots or opening hours. Booked dated slots that are no longer offered are
+ * kept, closed for new bookings.
+ */
+@Service
+@RequiredArgsConstructor
+public class SlotDateGenerator {
+
+    private static final int MAX_WEEKS = 104;
+    private static final int ALL_DAYS = 127;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SlotAvailabilityEngine availabilityEngine;
+
+    @Value("${slots.generate-weeks-ahead:12}")
+    private int weeksAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        regenerate();
+    }
+
+    /**
+     * Extends the calendar to weeks-ahead and re-checks all dated slots already generated.
+     */
+    @Scheduled(cron = "${slots.generate-cron:0 15 3 * * *}")
+    public void regenerate() {
+        if (materialize(LocalDate.now(), calendarEnd()) > 0) {
+            availabilityEngine.reload();
+        }
+    }
+
+    /**
+     * Applies a change of slot templates or opening hours to every dated slot from today on.
+     * The availability matrix is reloaded even when no dated slot changed (e.g. a new capacity).
+     */
+    public void onTemplatesChanged() {
+        materialize(LocalDate.now(), calendarEnd());
+        availabilityEngine.reload();
+    }
+
+    /**
+     * Generates dated slots for the given number of weeks starting at from (e.g. a whole season)
+     * and reports how many dated slots changed.
+     */
+    public SlotGenerationResultDto generate(LocalDate from, int weeks) {
+        if (weeks < 1 || weeks > MAX_WEEKS) {
+            throw new IllegalArgumentException("Weeks must be between 1 and " + MAX_WEEKS);
+        }
+        LocalDate start = from == null || from.isBefore(LocalDate.now()) ? LocalDate.now() : from;
+        LocalDate end = start.plusWeeks(weeks).minusDays(1);
+        int changed = materialize(start, end);
+        if (changed > 0) {
+            availabilityEngine.reload();
+        }
+        return new SlotGenerationResultDto(start, end, changed);
+    }
+
+    private int materialize(LocalDate from, LocalDate to) {
+        Integer changed = jdbcTemplate.queryForObject("SELECT materialize_slot_dates(?, ?)", Integer.class, from, to);
+        return changed == null ? 0 : changed;
+    }
+
+    /**
+     * Last date to keep in line: weeks-ahead from today, or further when a longer season was generated.
+     */
+    private LocalDate calendarEnd() {
+        LocalDate end = LocalDate.now().plusWeeks(weeksAhead).minusDays(1);
+        LocalDate generated = jdbcTemplate.queryForObject(
+                "SELECT MAX(reservation_date) FROM slot_date_capacity WHERE offered", LocalDate.class);
+        return generated != null && generated.isAfter(end) ? generated : end;
+    }
+
+    public static int toMask(Set<DayOfWeek> days) {
+        if (days == null || days.isEmpty()) {
+            return ALL_DAYS;
+        }
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        return mask;
+    }
+
+    public static Set<DayOfWeek> fromMask(int mask) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((mask & (1 << (day.getValue() - 1))) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+}
@@ -0,0 +1,234 @@
+package cz.utb.kovarna.application.service;
+
+import cz.utb.kovarna.application.availability.TableLayout;
+import cz.utb.kovarna.application.availability.TablePlan;
+import cz.utb.kovarna.infrastructure.repository.DiningTableRepository;
+import cz.utb.kovarna.infrastructure.repository.ReservationRepository;
+import cz.utb.kovarna.infrastructure.repository.TablePlacementView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Places parties on physical tables, one TablePlan per (slot, date).
+ *
+ * Plans for a date are rebuilt from the database with one query on first use and then
+ * kept in memory; every booking write updates them incrementally. A booking only holds its
+ * tables until its transaction ends: the plan changes after commit and the holds are dropped
+ * on rollback. Only dates inside the availability horizon are kept; plans for other dates
+ * asked for by availability queries are built per call and thrown away.
+ * Slots are assumed not to overlap, so a table is free again in the next slot.
+ * When no tables are configured, assignment is skipped and only seat capacity applies.
+ */
+@Service
+@RequiredArgsConstructor
+public class TableAssignmentService {
+
+    private final DiningTableRepository tableRepository;
+    private final ReservationRepository reservationRepository;
+
+    private final Map<LocalDate, Map<Long, TablePlan>> plans = new ConcurrentHashMap<>();
+    private volatile TableLayout layout = TableLayout.of(new long[0], new int[0]);
+
+    @Value("${availability.horizon-days:90}")
+    private int horizonDays;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reloadLayout();
+    }
+
+    /**
+     * Must be called whenever tables change; all plans are rebuilt lazily against the new layout.
+     */
+    public synchronized void reloadLayout() {
+        layout = TableLayout.of(tableRepository.findByActiveTrue());
+        plans.clear();
+    }
+
+    public boolean hasTables() {
+        return !layout.isEmpty();
+    }
+
+    /**
+     * Seats of the largest table still free in the slot, or null when no tables are configured.
+     */
+    public Integer largestFreeTable(Long slotId, LocalDate date) {
+        if (!hasTables()) {
+            return null;
+        }
+        TablePlan plan = plan(slotId, date, false);
+        synchronized (plan) {
+            return plan.largestFreeTable();
+        }
+    }
+
+    public boolean canSeat(Long slotId, LocalDate date, int guests) {
+        if (!hasTables()) {
+            return true;
+        }
+        TablePlan plan = plan(slotId, date, false);
+        synchronized (plan) {
+            return plan.canSeat(guests);
+        }
+    }
+
+    /**
+     * Which of the parties, tried in order, the slot can seat together; all of them when no tables
+     * are configured.
+     */
+    public boolean[] canSeatAll(Long slotId, LocalDate date, int[] guests) {
+        if (!hasTables()) {
+            boolean[] all = new boolean[guests.length];
+            Arrays.fill(all, true);
+            return all;
+        }
+        TablePlan plan = plan(slotId, date, false);
+        synchronized (plan) {
+            return plan.canSeatAll(guests);
+        }
+    }
+
+    /**
+     * Seats a (new or moved) reservation and persists every placement that changed; other
+     * parties are only moved when no free table fits. The plan follows once the transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void place(Long reservationId, Long slotId, LocalDate date, int guests) {
+        if (!hasTables()) {
+            return;
+        }
+        TablePlan plan = plan(slotId, date, true);
+        TablePlan.Change change;
+        synchronized (plan) {
+            change = plan.place(reservationId, guests);
+        }
+        if (change == null) {
+            throw new RuntimeException("No table is free for a party of " + guests);
+        }
+        TransactionHooks.afterCommit(() -> {
+            synchronized (plan) {
+                plan.commit(change);
+            }
+        });
+        TransactionHooks.afterRollback(() -> {
+            synchronized (plan) {
+                plan.rollback(change);
+            }
+        });
+        change.placements().forEach(p -> reservationRepository.assignTable(p.reservationId(), p.tableId()));
+    }
+
+    /**
+     * Frees the table of a reservation that was deleted or cancelled.
+     */
+    public void remove(Long reservationId, Long slotId, LocalDate date) {
+        if (!hasTables()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            // A date that is not in memory is rebuilt from the database on next use
+            Map<Long, TablePlan> day = plans.get(date);
+            TablePlan plan = day == null ? null : day.get(slotId);
+            if (plan != null) {
+                synchronized (plan) {
+                    plan.remove(reservationId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Incremental re-pack for an admin edit: seats the party in the target slot, moving other
+     * parties only when no free table fits, and frees the old table once the edit commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void move(Long reservationId, Long fromSlotId, LocalDate fromDate,
+                     Long toSlotId, LocalDate toDate, int guests) {
+        if (!hasTables()) {
+            return;
+        }
+        place(reservationId, toSlotId, toDate, guests);
+        if (!fromSlotId.equals(toSlotId) || !fromDate.equals(toDate)) {
+            remove(reservationId, fromSlotId, fromDate);
+        }
+    }
+
+    /**
+     * Drops the plans of the given dates after commit, for writes that bypass place (bulk import);
+     * they are rebuilt from the database on next use.
+     */
+    public void invalidate(Collection<LocalDate> dates) {
+        TransactionHooks.afterCommit(() -> dates.forEach(plans::remove));
+    }
+
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictPastDates() {
+        LocalDate today = LocalDate.now();
+        plans.keySet().removeIf(date -> date.isBefore(today));
+    }
+
+    /**
+     * The plan of the slot on the date. Bookings keep their date in memory; availability queries
+     * only do so inside the horizon, so arbitrary dates asked for by clients are not retained.
+     */
+    private TablePlan plan(Long slotId, LocalDate date, boolean booking) {
+        Map<Long, TablePlan> day = plans.get(date);
+        if (day == null) {
+            // Loaded outside the map so the query does not block other dates
+            Map<Long, TablePlan> loaded = load(date);
+            if (!booking && !inHorizon(date)) {
+                return loaded.computeIfAbsent(slotId, id -> new TablePlan(layout));
+            }
+            day = plans.putIfAbsent(date, loaded);
+            if (day == null) {
+                day = loaded;
+            }
+        }
+        return day.computeIfAbsent(slotId, id -> new TablePlan(layout));
+    }
+
+    private boolean inHorizon(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        return !date.isBefore(today) && !date.isAfter(today.plusDays(horizonDays));
+    }
+
+    /**
+     * Rebuilds all plans of a date: stored placements are restored, parties without a
+     * valid table are seated best-fit (in memory only until they are next moved).
+     */
+    private Map<Long, TablePlan> load(LocalDate date) {
+        TableLayout current = layout;
+        Map<Long, TablePlan> bySlot = new ConcurrentHashMap<>();
+        Map<Long, List<TablePlacementView>> unplaced = new HashMap<>();
+
+        for (TablePlacementView row : reservationRepository.findTablePlacements(date)) {
+            TablePlan plan = bySlot.computeIfAbsent(row.getSlotId(), id -> new TablePlan(current));
+            if (!plan.restore(row.getId(), row.getGuestCount(), row.getTableId())) {
+                unplaced.computeIfAbsent(row.getSlotId(), id -> new ArrayList<>()).add(row);
+            }
+        }
+        unplaced.forEach((slotId, rows) -> rows.forEach(row -> {
+            TablePlan plan = bySlot.get(slotId);
+            TablePlan.Change change = plan.place(row.getId(), row.getGuestCount());
+            if (change != null) {
+                plan.commit(change);
+            }
+        }));
+        return bySlot;
+    }
+}
@@ -0,0 +1,85 @@
+package cz.utb.kovarna.application.service;
+
+import cz.utb.kovarna.infrastructure.repository.TokenRevocationView;
+import cz.utb.kovarna.infrastructure.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Users whose tokens issued up to a point in time are no longer accepted, because their
+ * enabled flag, roles or username changed after the token was signed.
+ *
+ * Tokens carry those values as claims and are not checked against the users table per request.
+ * The revocation is stored in users.tokens_valid_after, so it survives restarts and reaches every
+ * instance: each instance loads the marks of the last token lifetime at startup and refreshes them
+ * every jwt.revocation.refresh-ms. The instance that made the change applies it immediately.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate newTransaction;
+
+    @Value("${jwt.expiration}")
+    private long expirationMs;
+
+    /** User id -> tokens issued at or before this epoch second are revoked. */
+    private final Map<Long, Long> revokedUpTo = new ConcurrentHashMap<>();
+
+    public TokenRevocationList(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Revokes the user's tokens issued so far, as part of the current transaction, and once more
+     * after it commits, so a login that read the user before the commit cannot keep a token
+     * signed with the old values.
+     */
+    public void revoke(Long userId) {
+        long now = Instant.now().getEpochSecond();
+        userRepository.revokeTokens(userId, now);
+        TransactionHooks.afterCommit(() -> {
+            long committed = Instant.now().getEpochSecond();
+            newTransaction.executeWithoutResult(status -> userRepository.revokeTokens(userId, committed));
+            mark(userId, committed);
+        });
+    }
+
+    public boolean isRevoked(Long userId, Instant issuedAt) {
+        Long upTo = revokedUpTo.get(userId);
+        // The iat claim has whole seconds only, so a token from the same second is revoked as well
+        return upTo != null && issuedAt.getEpochSecond() <= upTo;
+    }
+
+    @PostConstruct
+    void load() {
+        refresh();
+    }
+
+    /**
+     * Picks up revocations made by other instances and drops marks whose tokens have all expired.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-ms:5000}", initialDelayString = "${jwt.revocation.refresh-ms:5000}")
+    public void refresh() {
+        long cutoff = Instant.now().minusMillis(expirationMs).getEpochSecond();
+        for (TokenRevocationView revocation : userRepository.findTokenRevocationsAfter(cutoff)) {
+            mark(revocation.getId(), revocation.getTokensValidAfter());
+        }
+        revokedUpTo.values().removeIf(upTo -> upTo < cutoff);
+    }
+
+    private void mark(Long userId, long epochSecond) {
+        revokedUpTo.merge(userId, epochSecond, Math::max);
+    }
+}
@@ -0,0 +1,69 @@
+package cz.utb.kovarna.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.utb.kovarna.application.dto.ReservationPageDto;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * First page of each user's upcoming reservations (the default "My reservations" view).
+ * Every write that changes a user's reservations must call evict for that user;
+ * entries also expire on their own and never survive the day they were built on.
+ *
+ * A page is only stored when no eviction of its user happened while it was loaded: evict bumps
+ * a generation counter (striped by username, so it needs no per-user state), and get compares
+ * it with the value read before loading. A read that started before a writer committed cannot
+ * put the old page back after the eviction.
+ */
+@Component
+public class UpcomingReservationsCache {
+
+    private record Entry(LocalDate day, ReservationPageDto page) {
+    }
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final Cache<String, Entry> cache = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    public ReservationPageDto get(String username, Supplier<ReservationPageDto> loader) {
+        LocalDate today = LocalDate.now();
+        Entry entry = cache.getIfPresent(username);
+        if (entry != null && entry.day().equals(today)) {
+            return entry.page();
+        }
+        int stripe = stripe(username);
+        long generation = generations.get(stripe);
+        ReservationPageDto page = loader.get();
+        cache.asMap().compute(username, (key, current) ->
+                generations.get(stripe) == generation ? new Entry(today, page) : current);
+        return page;
+    }
+
+    /**
+     * Drops the user's entry once the current transaction commits (immediately without one),
+     * so a read racing with the write cannot keep the old page.
+     */
+    public void evict(String username) {
+        invalidate(username);
+        TransactionHooks.afterCommit(() -> invalidate(username));
+    }
+
+    private void invalidate(String username) {
+        generations.incrementAndGet(stripe(username));
+        cache.invalidate(username);
+    }
+
+    private static int stripe(String username) {
+        return username.hashCode() & (GENERATION_STRIPES - 1);
+    }
+}
@@ -0,0 +1,357 @@
+package cz.utb.kovarna.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.utb.kovarna.application.dto.BulkUserResultDto;
+import cz.utb.kovarna.application.dto.BulkUserRowDto;
+import cz.utb.kovarna.domain.entity.Role;
+import cz.utb.kovarna.domain.entity.User;
+import cz.utb.kovarna.infrastructure.repository.RoleRepository;
+import cz.utb.kovarna.infrastructure.repository.UserIdentityView;
+import cz.utb.kovarna.infrastructure.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk import of customer accounts (e.g. migrating a loyalty club), instead of one
+ * /api/auth/register call per member.
+ *
+ * Rows are processed in chunks. Each chunk is checked against existing usernames and emails with
+ * one query, its passwords are hashed on a small dedicated fork-join pool, and the users
+ * with their users_roles rows are inserted in JDBC batches in a short transaction of their own.
+ * The result of every row is written out as NDJSON as soon as its chunk is committed.
+ */
+@Service
+public class UserImportService {
+
+    private static final int MAX_ROWS = 10_000;
+    private static final int CHUNK_SIZE = 500;
+    /** BCrypt only uses the first 72 bytes of a password; longer ones would be silently truncated. */
+    private static final int MAX_PASSWORD_BYTES = 72;
+    /** Upper bound of hashing workers, so an import never takes every core from sign-ins. */
+    private static final int MAX_HASHING_PARALLELISM = 4;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    /**
+     * Separate from the login hashing pool, so an import does not make sign-ins fail with 503,
+     * and kept small, so it does not starve them of CPU either.
+     */
+    private final ForkJoinPool hashingPool;
+
+    public UserImportService(UserRepository userRepository,
+                             RoleRepository roleRepository,
+                             PasswordEncoder passwordEncoder,
+                             ObjectMapper objectMapper,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${users.import.hashing-parallelism:2}") int parallelism) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hashingPool = new ForkJoinPool(Math.max(1, Math.min(parallelism, MAX_HASHING_PARALLELISM)));
+    }
+
+    public void checkRowCount(List<BulkUserRowDto> rows) {
+        if (rows.isEmpty() || rows.size() > MAX_ROWS) {
+            throw new RuntimeException("A bulk import must contain 1 to " + MAX_ROWS + " rows");
+        }
+    }
+
+    /**
+     * Reads rows from CSV with a header line naming the username, email and password columns
+     * (in any order; other columns are ignored). Fields may be quoted.
+     */
+    public List<BulkUserRowDto> parseCsv(String csv) {
+        List<List<String>> lines = CsvReader.read(csv);
+        if (lines.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = lines.get(0);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        Integer username = columns.get("username");
+        Integer email = columns.get("email");
+        Integer password = columns.get("password");
+        if (username == null || email == null || password == null) {
+            throw new RuntimeException("CSV header must contain username, email and password columns");
+        }
+
+        List<BulkUserRowDto> rows = new ArrayList<>(lines.size() - 1);
+        for (List<String> line : lines.subList(1, lines.size())) {
+            rows.add(new BulkUserRowDto(field(line, username), field(line, email), field(line, password)));
+        }
+        return rows;
+    }
+
+    public void importUsers(List<BulkUserRowDto> rows, OutputStream target) throws IOException {
+        checkRowCount(rows);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+        Long customerRoleId = roleRepository.findByName("ROLE_CUSTOMER")
+                .orElseThrow(() -> new RuntimeException("Role not found"))
+                .getId();
+
+        // Usernames and emails taken by earlier rows of this import
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        for (int from = 0; from < rows.size(); from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE, rows.size());
+            BulkUserResultDto[] results = new BulkUserResultDto[to - from];
+
+            List<Integer> candidates = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                BulkUserRowDto row = rows.get(i);
+                String error = validate(row);
+                if (error == null && seenUsernames.contains(row.getUsername())) {
+                    error = "Username appears more than once in the import";
+                } else if (error == null && seenEmails.contains(row.getEmail())) {
+                    error = "Email appears more than once in the import";
+                } else if (error == null) {
+                    seenUsernames.add(row.getUsername());
+                    seenEmails.add(row.getEmail());
+                }
+                if (error != null) {
+                    results[i - from] = BulkUserResultDto.failed(i, row.getUsername(), error);
+                } else {
+                    candidates.add(i);
+                }
+            }
+
+            // Skip hashing for accounts that already exist
+            candidates = rejectExisting(rows, candidates, results, from);
+            List<String> hashes = hashAll(rows, candidates);
+            insert(rows, candidates, hashes, customerRoleId, results, from);
+
+            for (BulkUserResultDto result : results) {
+                writer.write(objectMapper.writeValueAsString(result));
+                writer.write('\n');
+            }
+            writer.flush();
+        }
+    }
+
+    private String validate(BulkUserRowDto row) {
+        if (row.getUsername() == null || row.getUsername().isBlank()) {
+            return "Username is required";
+        }
+        if (row.getUsername().length() > 50) {
+            return "Username must be at most 50 characters";
+        }
+        if (row.getEmail() == null || !EMAIL.matcher(row.getEmail()).matches()) {
+            return "Email must be valid";
+        }
+        if (row.getEmail().length() > 100) {
+            return "Email must be at most 100 characters";
+        }
+        if (row.getPassword() == null || row.getPassword().isBlank()) {
+            return "Password is required";
+        }
+        if (row.getPassword().getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES) {
+            return "Password must be at most " + MAX_PASSWORD_BYTES + " bytes";
+        }
+        return null;
+    }
+
+    /**
+     * Marks candidates whose username or email is already registered as failed, with one query.
+     */
+    private List<Integer> rejectExisting(List<BulkUserRowDto> rows, List<Integer> candidates,
+                                         BulkUserResultDto[] results, int from) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        candidates.forEach(i -> {
+            usernames.add(rows.get(i).getUsername());
+            emails.add(rows.get(i).getEmail());
+        });
+
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        for (UserIdentityView existing : userRepository.findIdentities(usernames, emails)) {
+            takenUsernames.add(existing.getUsername());
+            takenEmails.add(existing.getEmail());
+        }
+
+        List<Integer> remaining = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            BulkUserRowDto row = rows.get(i);
+            if (takenUsernames.contains(row.getUsername())) {
+                results[i - from] = BulkUserResultDto.failed(i, row.getUsername(), "Username already exists");
+            } else if (takenEmails.contains(row.getEmail())) {
+                results[i - from] = BulkUserResultDto.failed(i, row.getUsername(), "Email already exists");
+            } else {
+                remaining.add(i);
+            }
+        }
+        return remaining;
+    }
+
+    private List<String> hashAll(List<BulkUserRowDto> rows, List<Integer> candidates) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        try {
+            // A parallel stream started from inside the pool runs on the pool's workers
+            return hashingPool.submit(() -> candidates.parallelStream()
+                    .map(i -> passwordEncoder.encode(rows.get(i).getPassword()))
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("User import was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private void insert(List<BulkUserRowDto> rows, List<Integer> candidates, List<String> hashes, Long roleId,
+                        BulkUserResultDto[] results, int from) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // A registration may have taken a name while the chunk was hashed; re-check inside the transaction
+                Set<Integer> remaining = new HashSet<>(rejectExisting(rows, candidates, results, from));
+                Role customer = roleRepository.getReferenceById(roleId);
+
+                List<Integer> inserted = new ArrayList<>(remaining.size());
+                List<User> users = new ArrayList<>(remaining.size());
+                for (int k = 0; k < candidates.size(); k++) {
+                    int i = candidates.get(k);
+                    if (!remaining.contains(i)) {
+                        continue;
+                    }
+                    BulkUserRowDto row = rows.get(i);
+                    User user = new User();
+                    user.setUsername(row.getUsername());
+                    user.setEmail(row.getEmail());
+                    user.setPasswordHash(hashes.get(k));
+                    user.setRoles(Set.of(customer));
+                    inserted.add(i);
+                    users.add(user);
+                }
+                // Sends the users and users_roles batches; going through the repository translates
+                // a unique violation into DataIntegrityViolationException
+                userRepository.saveAllAndFlush(users);
+                entityManager.clear();
+
+                for (int k = 0; k < inserted.size(); k++) {
+                    int i = inserted.get(k);
+                    results[i - from] = BulkUserResultDto.created(i, rows.get(i).getUsername(), users.get(k).getId());
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a registration; nothing of this chunk was inserted. Rows already
+            // rejected as existing keep their result.
+            for (int i : candidates) {
+                BulkUserResultDto result = results[i - from];
+                if (result == null || "CREATED".equals(result.getStatus())) {
+                    results[i - from] = BulkUserResultDto.failed(i, rows.get(i).getUsername(),
+                            "Username or email was registered during the import, please retry the row");
+                }
+            }
+        }
+    }
+
+    private static String field(List<String> line, int index) {
+        if (index >= line.size()) {
+            return null;
+        }
+        String value = line.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    /**
+     * Minimal RFC 4180 reader: comma separated, double-quoted fields may contain commas,
+     * doubled quotes and line breaks. Blank lines are skipped.
+     */
+    static final class CsvReader {
+
+        private CsvReader() {
+        }
+
+        static List<List<String>> read(String csv) {
+            List<List<String>> lines = new ArrayList<>();
+            List<String> line = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+
+            for (int i = 0; i < csv.length(); i++) {
+                char c = csv.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    line.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+                        i++;
+                    }
+                    endLine(lines, line, field);
+                    line = new ArrayList<>();
+                } else if (c != '\uFEFF' || i > 0) {
+                    field.append(c);
+                }
+            }
+            endLine(lines, line, field);
+            return lines;
+        }
+
+        private static void endLine(List<List<String>> lines, List<String> line, StringBuilder field) {
+            line.add(field.toString());
+            field.setLength(0);
+            if (line.size() > 1 || !line.get(0).isBlank()) {
+                lines.add(line);
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import cz.utb.kovarna.application.dto.UserResponseDto;
 import cz.utb.kovarna.application.dto.UserUpdateDto;
 import cz.utb.kovarna.domain.entity.Role;
 import cz.utb.kovarna.domain.entity.User;
+import cz.utb.kovarna.infrastructure.config.CachedUserDetailsService;
 import cz.utb.kovarna.infrastructure.repository.RoleRepository;
 import cz.utb.kovarna.infrastructure.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -24,6 +26,12 @@ public class UserManagementService {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private CachedUserDetailsService userDetailsService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
     public List<UserResponseDto> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(this::convertToResponseDto)
@@ -53,6 +61,18 @@ public class UserManagementService {
             throw new RuntimeException("Email already exists: " + updateDto.getEmail());
         }
 
+        // Cached principals of the old and the new username must not outlive this change
+        userDetailsService.evict(user.getUsername());
+        userDetailsService.evict(updateDto.getUsername());
+
+        // Tokens carry username, enabled flag and roles; when any of them changes the issued tokens are revoked
+        Set<String> oldRoles = user.getRoles().stream().map(Role::getName).collect(Collectors.toSet());
+        if (!user.getUsername().equals(updateDto.getUsername())
+                || !Objects.equals(user.isEnabled(), updateDto.getEnabled())
+                || !oldRoles.equals(updateDto.getRoles())) {
+            tokenRevocationList.revoke(user.getId());
+        }
+
         // Update user fields (except password hash)
         user.setUsername(updateDto.getUsername());
         user.setEmail(updateDto.getEmail());
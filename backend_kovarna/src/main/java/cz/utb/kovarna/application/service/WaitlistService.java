@@ -0,0 +1,225 @@
+package cz.utb.kovarna.application.service;
+
+import cz.utb.kovarna.application.availability.SlotAvailabilityEngine;
+import cz.utb.kovarna.application.dto.ReservationRequestDto;
+import cz.utb.kovarna.application.dto.WaitlistEntryDto;
+import cz.utb.kovarna.domain.entity.User;
+import cz.utb.kovarna.domain.entity.WaitlistEntry;
+import cz.utb.kovarna.infrastructure.repository.PromotedEntryView;
+import cz.utb.kovarna.infrastructure.repository.ReservationSlotRepository;
+import cz.utb.kovarna.infrastructure.repository.UserRepository;
+import cz.utb.kovarna.infrastructure.repository.WaitlistCandidateView;
+import cz.utb.kovarna.infrastructure.repository.WaitlistEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-(slot, date) waitlists with asynchronous promotion.
+ *
+ * Freed capacity only marks its (slot, date) as pending; a scheduled drain then promotes
+ * the queues of all pending pairs, so a burst of cancellations costs one promotion run instead
+ * of one run per cancellation. Entries are tried oldest first; a party that does not fit is
+ * skipped in favour of the next one that does. The head of each queue (up to
+ * waitlist.promotion-batch-size entries) is promoted in one transaction by one set-based
+ * statement; entries that are no longer waiting are left out of it, and a queue whose batch
+ * fails is queued again and retried on the next run.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitlistService {
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final UserRepository userRepository;
+    private final ReservationSlotRepository slotRepository;
+    private final SlotAvailabilityEngine availabilityEngine;
+    private final TableAssignmentService tableAssignmentService;
+    private final TransactionTemplate transactionTemplate;
+    private final UpcomingReservationsCache upcomingCache;
+    private final OccupancyStatsService statsService;
+
+    private final Set<SlotCapacityFreedEvent> pending = ConcurrentHashMap.newKeySet();
+
+    @Value("${waitlist.promotion-batch-size:50}")
+    private int batchSize;
+
+    /**
+     * Queues that may have been left unpromoted by a restart are checked once at startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        waitlistRepository.findWaitingKeys(LocalDate.now())
+                .forEach(k -> pending.add(new SlotCapacityFreedEvent(k.getSlotId(), k.getReservationDate())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCapacityFreed(SlotCapacityFreedEvent event) {
+        pending.add(event);
+    }
+
+    @Transactional
+    public WaitlistEntryDto join(String username, ReservationRequestDto dto) {
+        if (availabilityEngine.catalog().indexOf(dto.getSlotId()) < 0) {
+            throw new RuntimeException("Slot not found");
+        }
+        if (dto.getGuestCount() < 1 || dto.getGuestCount() > 10) {
+            throw new RuntimeException("Invalid number of guests (must be between 1 and 10)");
+        }
+        if (!availabilityEngine.isOffered(dto.getSlotId(), dto.getDate())) {
+            throw new RuntimeException("This slot is not offered on the selected date");
+        }
+        if (availabilityEngine.canSeat(dto.getSlotId(), dto.getDate(), dto.getGuestCount())
+                && tableAssignmentService.canSeat(dto.getSlotId(), dto.getDate(), dto.getGuestCount())) {
+            throw new RuntimeException("This slot still has room, please book it directly");
+        }
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setUser(user);
+        entry.setSlot(slotRepository.getReferenceById(dto.getSlotId()));
+        entry.setReservationDate(dto.getDate());
+        entry.setGuestCount(dto.getGuestCount());
+        try {
+            entry = waitlistRepository.saveAndFlush(entry);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("You are already on the waitlist for this slot");
+        }
+        statsService.recordWaitlisted(dto.getSlotId(), dto.getDate());
+
+        // A place may have been freed while joining
+        SlotCapacityFreedEvent key = new SlotCapacityFreedEvent(dto.getSlotId(), dto.getDate());
+        TransactionHooks.afterCommit(() -> pending.add(key));
+        return convertToDto(entry);
+    }
+
+    public List<WaitlistEntryDto> getUserEntries(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return waitlistRepository.findByUserOrderByCreatedAtDesc(user).stream()
+                .map(this::convertToDto)
+                .toList();
+    }
+
+    @Transactional
+    public void leave(String username, Long entryId) {
+        WaitlistEntry entry = waitlistRepository.findByIdAndUserUsername(entryId, username)
+                .orElseThrow(() -> new RuntimeException("Waitlist entry not found"));
+        if (!"WAITING".equals(entry.getStatus())) {
+            throw new RuntimeException("This waitlist entry is no longer waiting");
+        }
+        entry.setStatus("CANCELLED");
+    }
+
+    /**
+     * Drains the pending (slot, date) pairs and promotes their queues.
+     * A pair whose batch fails is queued again for the next run.
+     */
+    @Scheduled(fixedDelayString = "${waitlist.promotion-interval-ms:1000}")
+    public void promotePending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        List<SlotCapacityFreedEvent> batch = new ArrayList<>();
+        for (SlotCapacityFreedEvent key : pending) {
+            if (pending.remove(key) && !key.date().isBefore(today)) {
+                batch.add(key);
+            }
+        }
+        for (SlotCapacityFreedEvent key : batch) {
+            try {
+                promoteQueue(key);
+            } catch (RuntimeException e) {
+                log.warn("Promoting the waitlist of slot {} on {} failed, retrying", key.slotId(), key.date(), e);
+                pending.add(key);
+            }
+        }
+    }
+
+    private void promoteQueue(SlotCapacityFreedEvent key) {
+        List<WaitlistCandidateView> queue =
+                waitlistRepository.findQueue(key.slotId(), key.date(), PageRequest.of(0, batchSize));
+        if (!queue.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> promoteBatch(key.slotId(), key.date(), queue));
+        }
+    }
+
+    /**
+     * Promotes the head of one queue in one transaction. The parties are reserved in memory and
+     * checked against the table plan oldest first, then promoted by a single statement; entries
+     * the statement leaves out give their capacity back.
+     */
+    private void promoteBatch(Long slotId, LocalDate date, List<WaitlistCandidateView> queue) {
+        availabilityEngine.markPending(date);
+
+        List<WaitlistCandidateView> reserved = new ArrayList<>();
+        for (WaitlistCandidateView candidate : queue) {
+            if (availabilityEngine.tryReserve(slotId, date, candidate.getGuestCount())) {
+                reserved.add(candidate);
+            }
+        }
+        boolean[] seatable = tableAssignmentService.canSeatAll(slotId, date,
+                reserved.stream().mapToInt(WaitlistCandidateView::getGuestCount).toArray());
+        Map<Long, Integer> guestsByEntry = new LinkedHashMap<>();
+        for (int i = 0; i < reserved.size(); i++) {
+            WaitlistCandidateView candidate = reserved.get(i);
+            if (seatable[i]) {
+                guestsByEntry.put(candidate.getId(), candidate.getGuestCount());
+            } else {
+                availabilityEngine.release(slotId, date, candidate.getGuestCount());
+            }
+        }
+        if (guestsByEntry.isEmpty()) {
+            return;
+        }
+
+        List<PromotedEntryView> promoted;
+        try {
+            promoted = waitlistRepository.promoteAll(guestsByEntry.keySet());
+        } catch (RuntimeException e) {
+            guestsByEntry.values().forEach(guests -> availabilityEngine.release(slotId, date, guests));
+            throw e;
+        }
+        Map<Long, Integer> left = new HashMap<>(guestsByEntry);
+        promoted.forEach(entry -> left.remove(entry.getEntryId()));
+        left.values().forEach(guests -> availabilityEngine.release(slotId, date, guests));
+        if (promoted.isEmpty()) {
+            return;
+        }
+
+        int seats = promoted.stream().mapToInt(entry -> guestsByEntry.get(entry.getEntryId())).sum();
+        TransactionHooks.afterRollback(() -> promoted.forEach(entry ->
+                availabilityEngine.release(slotId, date, guestsByEntry.get(entry.getEntryId()))));
+        for (PromotedEntryView entry : promoted) {
+            tableAssignmentService.place(entry.getReservationId(), slotId, date, guestsByEntry.get(entry.getEntryId()));
+            upcomingCache.evict(entry.getUsername());
+        }
+        statsService.recordBooked(slotId, date, promoted.size(), seats);
+    }
+
+    private WaitlistEntryDto convertToDto(WaitlistEntry entry) {
+        return new WaitlistEntryDto(entry.getId(), entry.getSlot().getId(), entry.getReservationDate(),
+                entry.getGuestCount(), entry.getStatus(), entry.getReservationId(), entry.getCreatedAt());
+    }
+}
@@ -3,20 +3,22 @@ package cz.utb.kovarna.application.service.implementation;
 
 import cz.utb.kovarna.application.service.AuthService;
 import cz.utb.kovarna.application.service.JwtService;
+import cz.utb.kovarna.application.service.PasswordHashingService;
 import cz.utb.kovarna.application.dto.AuthResponseDto;
 import cz.utb.kovarna.application.dto.UserRegistrationDto;
 import cz.utb.kovarna.application.dto.UserResponseDto;
 import cz.utb.kovarna.domain.entity.Role;
 import cz.utb.kovarna.domain.entity.User;
+import cz.utb.kovarna.infrastructure.config.UserPrincipal;
 import cz.utb.kovarna.infrastructure.repository.RoleRepository;
 import cz.utb.kovarna.infrastructure.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.*;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Set;
 
@@ -26,19 +28,37 @@ public class AuthServiceImplementation implements AuthService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordHashingService passwordHashing;
     private final JwtService jwtService;
 
+    /**
+     * Loads the user once, checks the password on the hashing pool and signs the token
+     * from the same user. Unknown usernames and wrong passwords fail alike.
+     */
     @Override
     public AuthResponseDto authenticateUser(String username, String password) {
-        Authentication auth = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(username, password)
-        );
-        String token = jwtService.generateToken(auth);
+        User user = userRepository.findByUsername(username).orElse(null);
+        boolean matches = passwordHashing.matches(password, user != null ? user.getPasswordHash() : null);
+        if (user == null || !matches) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (!user.isEnabled()) {
+            throw new DisabledException("User is disabled");
+        }
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // Hashes made with another BCrypt cost are re-encoded while the password is known;
+        // when the hashing pool is busy this waits for a later login
+        if (passwordHashing.needsRehash(user.getPasswordHash())) {
+            try {
+                userRepository.updatePasswordHash(user.getId(), passwordHashing.encode(password));
+            } catch (ResponseStatusException e) {
+                // keep the old hash
+            }
+        }
+
+        UserPrincipal principal = new UserPrincipal(user);
+        String token = jwtService.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
 
         return new AuthResponseDto(token, new UserResponseDto(user));
     }
@@ -67,7 +87,7 @@ public class AuthServiceImplementation implements AuthService {
         User user = new User();
         user.setUsername(dto.getUsername());
         user.setEmail(dto.getEmail());
-        user.setPasswordHash(passwordEncoder.encode(dto.getPassword()));
+        user.setPasswordHash(passwordHashing.encode(dto.getPassword()));
         user.setRoles(Set.of(roleCustomer));
 
         return userRepository.save(user);
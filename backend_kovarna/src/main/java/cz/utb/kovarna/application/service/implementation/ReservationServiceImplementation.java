@@ -1,15 +1,25 @@
 package cz.utb.kovarna.application.service.implementation;
 
+import cz.utb.kovarna.application.availability.SlotAvailabilityEngine;
+import cz.utb.kovarna.application.availability.SlotCatalog;
+import cz.utb.kovarna.application.service.ConstraintViolations;
+import cz.utb.kovarna.application.service.OccupancyStatsService;
+import cz.utb.kovarna.application.service.ReservationCursor;
 import cz.utb.kovarna.application.service.ReservationService;
+import cz.utb.kovarna.application.service.SlotCapacityService;
+import cz.utb.kovarna.application.service.TableAssignmentService;
+import cz.utb.kovarna.application.service.UpcomingReservationsCache;
+import cz.utb.kovarna.application.dto.ReservationPageDto;
 import cz.utb.kovarna.application.dto.ReservationRequestDto;
 import cz.utb.kovarna.application.dto.ReservationResponseDto;
 import cz.utb.kovarna.domain.entity.Reservation;
-import cz.utb.kovarna.domain.entity.ReservationSlot;
 import cz.utb.kovarna.domain.entity.User;
 import cz.utb.kovarna.infrastructure.repository.ReservationRepository;
 import cz.utb.kovarna.infrastructure.repository.ReservationSlotRepository;
 import cz.utb.kovarna.infrastructure.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,65 +30,98 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ReservationServiceImplementation implements ReservationService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ReservationRepository reservationRepository;
-    private final ReservationSlotRepository slotRepository;
     private final UserRepository userRepository;
+    private final ReservationSlotRepository slotRepository;
+    private final SlotCapacityService capacityService;
+    private final SlotAvailabilityEngine availabilityEngine;
+    private final TableAssignmentService tableAssignmentService;
+    private final UpcomingReservationsCache upcomingCache;
+    private final OccupancyStatsService statsService;
 
     @Override
     @Transactional
     public ReservationResponseDto createReservation(String username, ReservationRequestDto dto) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        ReservationSlot slot = slotRepository.findById(dto.getSlotId())
-                .orElseThrow(() -> new RuntimeException("Slot not found"));
-
-        LocalDate date = dto.getDate();
-
-        // 1 user → 1 reservation per day
-        boolean hasReservation = reservationRepository.existsByUserAndReservationDate(user, date);
-        if (hasReservation) {
-            throw new RuntimeException("You already have a reservation on this day");
-        }
-
-        // Checking the user limit per slot
-        if (slot.getCurrentReservations() >= slot.getMaxReservations()) {
-            throw new RuntimeException("This slot is fully booked");
+        // Slot metadata comes from the in-memory catalog
+        SlotCatalog catalog = availabilityEngine.catalog();
+        int slotIndex = catalog.indexOf(dto.getSlotId());
+        if (slotIndex < 0) {
+            throw new RuntimeException("Slot not found");
         }
 
         // Checking the number of guests
         if (dto.getGuestCount() < 1 || dto.getGuestCount() > 10) {
             throw new RuntimeException("Invalid number of guests (must be between 1 and 10)");
         }
+        if (!availabilityEngine.isOffered(dto.getSlotId(), dto.getDate())) {
+            throw new RuntimeException("This slot is not offered on the selected date");
+        }
 
-        // Creating a new reservation
-        Reservation reservation = new Reservation();
-        reservation.setUser(user);
-        reservation.setSlot(slot);
-        reservation.setReservationDate(dto.getDate());
-        reservation.setGuestCount(dto.getGuestCount());
-        reservation.setStatus("ACTIVE");
+        LocalDate date = dto.getDate();
 
-        // Updating the number of occupied seats in the slot
-        slot.setCurrentReservations(slot.getCurrentReservations() + 1);
-        slotRepository.save(slot);
+        // Slots that cannot seat the party are rejected in memory before touching the database
+        if (!tableAssignmentService.canSeat(dto.getSlotId(), date, dto.getGuestCount())) {
+            throw new RuntimeException("No table is free for a party of " + dto.getGuestCount());
+        }
+        capacityService.reserveInMemory(dto.getSlotId(), date, dto.getGuestCount());
+
+        // Capacity check, ledger increment and insert in one statement;
+        // 1 user → 1 reservation per day is enforced by a unique index
+        Long reservationId;
+        try {
+            reservationId = reservationRepository.book(username, dto.getSlotId(), date, dto.getGuestCount())
+                    .orElseThrow(() -> bookingRejected(username, dto.getSlotId()));
+        } catch (DataIntegrityViolationException e) {
+            throw bookingFailed(e);
+        }
 
-        Reservation saved = reservationRepository.save(reservation);
+        // Seating the party at a physical table
+        tableAssignmentService.place(reservationId, dto.getSlotId(), date, dto.getGuestCount());
+        statsService.recordBooked(dto.getSlotId(), date, 1, dto.getGuestCount());
+        upcomingCache.evict(username);
 
         ReservationResponseDto response = new ReservationResponseDto();
-        response.setId(saved.getId());
-        response.setReservationId(saved.getId()); // Backward compatibility
-        response.setUsername(user.getUsername());
-        response.setDate(saved.getReservationDate());
-        response.setReservationDate(saved.getReservationDate()); // Backward compatibility
-        response.setSlotFrom(slot.getSlotFrom());
-        response.setSlotTo(slot.getSlotTo());
-        response.setSlotId(slot.getId());
-        response.setGuestCount(saved.getGuestCount());
-        response.setStatus(saved.getStatus());
+        response.setId(reservationId);
+        response.setReservationId(reservationId); // Backward compatibility
+        response.setUsername(username);
+        response.setDate(date);
+        response.setReservationDate(date); // Backward compatibility
+        response.setSlotFrom(catalog.slotFrom(slotIndex));
+        response.setSlotTo(catalog.slotTo(slotIndex));
+        response.setSlotId(dto.getSlotId());
+        response.setGuestCount(dto.getGuestCount());
+        response.setStatus("ACTIVE");
         return response;
     }
 
+    /**
+     * book() inserts nothing when the user is unknown, the slot is gone or the slot is full;
+     * only the last one is common, so the others are looked up on this path alone.
+     */
+    private RuntimeException bookingRejected(String username, Long slotId) {
+        if (userRepository.findByUsername(username).isEmpty()) {
+            return new RuntimeException("User not found");
+        }
+        if (!slotRepository.existsById(slotId)) {
+            return new RuntimeException("Slot not found");
+        }
+        return new RuntimeException("This slot is fully booked");
+    }
+
+    private static RuntimeException bookingFailed(DataIntegrityViolationException e) {
+        if (ConstraintViolations.isUniqueViolation(e)) {
+            return new RuntimeException("You already have a reservation on this day");
+        }
+        return switch (ConstraintViolations.constraintName(e)) {
+            case "fk_user" -> new RuntimeException("User not found");
+            case "fk_slot" -> new RuntimeException("Slot not found");
+            default -> e;
+        };
+    }
+
     @Override
     public List<ReservationResponseDto> getUserReservations(String username) {
         User user = userRepository.findByUsername(username)
@@ -102,6 +145,37 @@ public class ReservationServiceImplementation implements ReservationService {
                 .toList();
     }
 
+    @Override
+    public ReservationPageDto getUpcomingReservations(String username, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        // The default first page is what MyReservations opens with, so it is cached per user
+        if (cursor == null && pageSize == DEFAULT_PAGE_SIZE) {
+            return upcomingCache.get(username, () -> loadUpcoming(username, ReservationCursor.parse(null), pageSize));
+        }
+        return loadUpcoming(username, ReservationCursor.parse(cursor), pageSize);
+    }
+
+    @Override
+    public ReservationPageDto getReservationHistory(String username, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        ReservationCursor after = ReservationCursor.parse(cursor);
+        return ReservationCursor.toPage(reservationRepository.findHistory(username, LocalDate.now(),
+                after.date(), after.id(), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    private ReservationPageDto loadUpcoming(String username, ReservationCursor after, int pageSize) {
+        return ReservationCursor.toPage(reservationRepository.findUpcoming(username, LocalDate.now(),
+                after.date(), after.id(), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    private static int pageSize(Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return pageSize;
+    }
+
     @Override
     @Transactional
     public void deleteReservationByUser(Long reservationId, String username) {
@@ -115,11 +189,17 @@ public class ReservationServiceImplementation implements ReservationService {
             throw new RuntimeException("You can only delete your own reservations");
         }
 
-        // After deletion — reduce the number of occupied places in the slot
-        ReservationSlot slot = reservation.getSlot();
-        slot.setCurrentReservations(Math.max(0, slot.getCurrentReservations() - 1));
-        slotRepository.save(slot);
+        // After deletion — give the place back to the slot for that date
+        if (!"CANCELLED".equals(reservation.getStatus())) {
+            capacityService.release(reservation.getSlot().getId(), reservation.getReservationDate(),
+                    reservation.getGuestCount());
+            tableAssignmentService.remove(reservation.getId(), reservation.getSlot().getId(),
+                    reservation.getReservationDate());
+            statsService.recordCancelled(reservation.getSlot().getId(), reservation.getReservationDate(), 1,
+                    reservation.getGuestCount());
+        }
 
         reservationRepository.delete(reservation);
+        upcomingCache.evict(username);
     }
 }
@@ -0,0 +1,28 @@
+package cz.utb.kovarna.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "dining_tables")
+@Getter
+@Setter
+@NoArgsConstructor
+public class DiningTable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dining_tables_seq")
+    @SequenceGenerator(name = "dining_tables_seq", sequenceName = "dining_tables_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 50)
+    private String name;
+
+    @Column(nullable = false)
+    private int seats;
+
+    @Column(name = "is_active", nullable = false)
+    private boolean active = true;
+}
@@ -0,0 +1,45 @@
+package cz.utb.kovarna.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored outcome of a request sent with an Idempotency-Key header.
+ * Rows are claimed and completed only through the statements in IdempotencyRecordRepository.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    @EmbeddedId
+    private IdempotencyRecordId id;
+
+    // SHA-256 of the request body, so a reused key with a different request is rejected
+    @Column(name = "request_hash", nullable = false)
+    private String requestHash;
+
+    // IN_PROGRESS or COMPLETED
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // When the current IN_PROGRESS claim was taken; stale claims can be taken over
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+
+    // Token of the request holding the current claim
+    @Column(name = "claim_token")
+    private String claimToken;
+}
@@ -15,7 +15,8 @@ import java.time.LocalDate;
 public class Reservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_seq")
+    @SequenceGenerator(name = "reservations_seq", sequenceName = "reservations_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -26,6 +27,10 @@ public class Reservation {
     @JoinColumn(name = "slot_id")
     private ReservationSlot slot;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "table_id")
+    private DiningTable table;
+
     @Column(name = "reservation_date", nullable = false)
     private LocalDate reservationDate;
 
@@ -16,7 +16,8 @@ import java.util.List;
 public class ReservationSlot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_slots_seq")
+    @SequenceGenerator(name = "reservation_slots_seq", sequenceName = "reservation_slots_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "slot_from", nullable = false)
@@ -34,7 +35,11 @@ public class ReservationSlot {
     @Column(name = "max_reservations", nullable = false)
     private int maxReservations;
 
-    @Column(name = "current_reservations", nullable = false)
-    private int currentReservations;
+    @Column(name = "max_seats", nullable = false)
+    private int maxSeats;
+
+    // Weekdays the slot is offered on, bit 0 = Monday ... bit 6 = Sunday (see SlotDateGenerator)
+    @Column(name = "weekdays", nullable = false)
+    private int weekdays = 127;
 
 }
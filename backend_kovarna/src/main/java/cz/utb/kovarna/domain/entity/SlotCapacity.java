@@ -0,0 +1,31 @@
+package cz.utb.kovarna.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Capacity ledger row for one slot on one date, i.e. a dated slot.
+ * Offered rows are generated from the slot templates by SlotDateGenerator; only they can be booked.
+ * Counters are updated only through the atomic statements in SlotCapacityRepository.
+ */
+@Entity
+@Table(name = "slot_date_capacity")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SlotCapacity {
+
+    @EmbeddedId
+    private SlotCapacityId id;
+
+    @Column(name = "current_reservations", nullable = false)
+    private int currentReservations;
+
+    @Column(name = "booked_seats", nullable = false)
+    private int bookedSeats;
+
+    @Column(nullable = false)
+    private boolean offered;
+}
@@ -0,0 +1,49 @@
+package cz.utb.kovarna.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Demand rollup for one slot on one date: bookings made (including later cancellations),
+ * cancellations, waitlist joins and reservations moved out or in by an admin. Updated only through
+ * the delta upserts in SlotDemandStatsRepository.
+ */
+@Entity
+@Table(name = "slot_demand_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SlotDemandStats {
+
+    @EmbeddedId
+    private SlotDemandStatsId id;
+
+    @Column(nullable = false)
+    private int bookings;
+
+    @Column(name = "booked_covers", nullable = false)
+    private int bookedCovers;
+
+    @Column(nullable = false)
+    private int cancellations;
+
+    @Column(name = "cancelled_covers", nullable = false)
+    private int cancelledCovers;
+
+    @Column(nullable = false)
+    private int waitlisted;
+
+    @Column(name = "moved_out", nullable = false)
+    private int movedOut;
+
+    @Column(name = "moved_out_covers", nullable = false)
+    private int movedOutCovers;
+
+    @Column(name = "moved_in", nullable = false)
+    private int movedIn;
+
+    @Column(name = "moved_in_covers", nullable = false)
+    private int movedInCovers;
+}
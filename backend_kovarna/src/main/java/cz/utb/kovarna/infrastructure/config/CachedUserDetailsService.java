@@ -0,0 +1,49 @@
+package cz.utb.kovarna.infrastructure.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.utb.kovarna.application.service.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.time.Duration;
+
+/**
+ * Bounded, expiring cache of principals in front of the database-backed UserDetailsService,
+ * so authenticating a request with a JWT does not cost a users + users_roles query.
+ *
+ * Unknown users are not cached. Writes that change a user's username, enabled flag or roles
+ * must call evict; the TTL bounds how long any other change can go unnoticed.
+ * Hits, misses, evictions and size are exported as cache.* metrics with cache=principals.
+ */
+public class CachedUserDetailsService implements UserDetailsService {
+
+    private final UserDetailsService delegate;
+    private final Cache<String, UserDetails> cache;
+
+    public CachedUserDetailsService(UserDetailsService delegate, int maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) {
+        return cache.get(username, delegate::loadUserByUsername);
+    }
+
+    /**
+     * Drops the user's principal now and again once the current transaction commits,
+     * so a request racing with the write cannot re-cache the old state.
+     */
+    public void evict(String username) {
+        cache.invalidate(username);
+        TransactionHooks.afterCommit(() -> cache.invalidate(username));
+    }
+}
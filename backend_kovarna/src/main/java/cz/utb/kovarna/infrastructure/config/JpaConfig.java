@@ -0,0 +1,25 @@
+package cz.utb.kovarna.infrastructure.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate settings the code relies on, independent of application.properties.
+ */
+@Configuration
+public class JpaConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer batchingCustomizer() {
+        return properties -> {
+            // Ids come from sequences in blocks of 50 (see V20); pooled-lo treats the sequence value
+            // as the start of the block, so SQL-side nextval never hands out an id Hibernate still holds
+            properties.putIfAbsent("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+            // Group inserts/updates into JDBC batches
+            properties.putIfAbsent("hibernate.jdbc.batch_size", 50);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+        };
+    }
+}
@@ -48,22 +48,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             // Extract JWT token (remove "Bearer " prefix)
             final String jwt = authHeader.substring(7);
-            final String username = jwtService.extractUsername(jwt);
+            // Signature and expiry are checked once here (or remembered from an earlier request)
+            final JwtService.VerifiedToken token = jwtService.verify(jwt);
 
-            // If username is extracted and user is not already authenticated
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Load user details from database
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                // Validate token
-                if (jwtService.validateToken(jwt, userDetails)) {
-                    // Create authentication token
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
+            // If user is not already authenticated
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                UsernamePasswordAuthenticationToken authToken = token.isSelfContained()
+                        ? fromClaims(token)
+                        : fromUserDetails(token);
 
+                if (authToken != null) {
                     // Set additional details (IP address, session ID, etc.)
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -79,4 +73,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Continue filter chain
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Builds the authentication from the token claims alone; changes to the user
+     * revoke the token (see TokenRevocationList).
+     */
+    private UsernamePasswordAuthenticationToken fromClaims(JwtService.VerifiedToken token) {
+        if (!token.enabled()) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(token.username(), null, token.authorities());
+    }
+
+    /**
+     * Tokens issued before the user claims were added: load user details (cached, see CachedUserDetailsService).
+     */
+    private UsernamePasswordAuthenticationToken fromUserDetails(JwtService.VerifiedToken token) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(token.username());
+        if (!token.username().equals(userDetails.getUsername()) || !userDetails.isEnabled()) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(userDetails.getUsername(), null, userDetails.getAuthorities());
+    }
 }
@@ -0,0 +1,72 @@
+package cz.utb.kovarna.infrastructure.config;
+
+import cz.utb.kovarna.application.service.JwtService;
+import cz.utb.kovarna.infrastructure.ratelimit.RateLimitProperties;
+import cz.utb.kovarna.infrastructure.ratelimit.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rate Limit Filter
+ * Runs before JwtAuthenticationFilter and rejects requests over their route's limit with
+ * 429 and Retry-After, before any database lookup or password hashing is done.
+ * USER routes are keyed on the username from the token (signature checked, no database
+ * access), anonymous requests on the client IP.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final JwtService jwtService;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String routeKey = RateLimiter.routeKey(request.getMethod(), request.getServletPath());
+        RateLimitProperties.KeyType keyType = rateLimiter.keyType(routeKey);
+        if (keyType == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfter = rateLimiter.tryAcquire(routeKey, clientKey(request, keyType));
+        if (retryAfter > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", Long.toString(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many requests, try again in " + retryAfter + " s\"}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private String clientKey(HttpServletRequest request, RateLimitProperties.KeyType keyType) {
+        if (keyType == RateLimitProperties.KeyType.USER) {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                try {
+                    return "user:" + jwtService.extractUsername(authHeader.substring(7));
+                } catch (Exception e) {
+                    // Invalid token: limit by IP, authentication rejects the request later
+                }
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
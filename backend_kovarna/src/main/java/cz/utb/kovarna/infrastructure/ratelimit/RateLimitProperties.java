@@ -0,0 +1,52 @@
+package cz.utb.kovarna.infrastructure.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-route rate limits, e.g.
+ * rate-limit.routes[0].method=POST
+ * rate-limit.routes[0].path=/api/auth/login
+ * rate-limit.routes[0].key=IP
+ * rate-limit.routes[0].capacity=5
+ * rate-limit.routes[0].per-minute=10
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private List<Route> routes = new ArrayList<>(List.of(
+            new Route("POST", "/api/auth/login", KeyType.IP, 5, 10),
+            new Route("POST", "/api/auth/register", KeyType.IP, 3, 5),
+            new Route("POST", "/api/reservations", KeyType.USER, 5, 20),
+            new Route("POST", "/api/reservations/holds", KeyType.USER, 5, 20)
+    ));
+
+    public enum KeyType {
+        // Authenticated username, falling back to the client IP for anonymous calls
+        USER,
+        IP
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Route {
+        private String method;
+        private String path;
+        private KeyType key = KeyType.IP;
+        // Burst size
+        private int capacity;
+        // Sustained rate
+        private int perMinute;
+    }
+}
@@ -0,0 +1,74 @@
+package cz.utb.kovarna.infrastructure.ratelimit;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process rate limiter with one token bucket per (route, key).
+ *
+ * Buckets live in a ConcurrentHashMap per route (lock-striped writes, lock-free reads)
+ * and are created on first use; buckets that have refilled completely are evicted
+ * periodically, so memory follows the number of recently active clients.
+ */
+@Component
+public class RateLimiter {
+
+    private record Limit(RateLimitProperties.KeyType keyType, int capacity, long intervalNanos,
+                         Map<String, TokenBucket> buckets) {
+    }
+
+    private final Map<String, Limit> limits = new HashMap<>();
+
+    public RateLimiter(RateLimitProperties properties) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            if (route.getCapacity() < 1 || route.getPerMinute() < 1) {
+                throw new IllegalArgumentException("Rate limit of " + route.getPath() + " must allow at least one request");
+            }
+            long intervalNanos = TimeUnit.MINUTES.toNanos(1) / route.getPerMinute();
+            limits.put(routeKey(route.getMethod(), route.getPath()),
+                    new Limit(route.getKey(), route.getCapacity(), intervalNanos, new ConcurrentHashMap<>()));
+        }
+    }
+
+    public static String routeKey(String method, String path) {
+        return method + " " + path;
+    }
+
+    /**
+     * How clients of the route are told apart, or null when the route is not limited.
+     */
+    public RateLimitProperties.KeyType keyType(String routeKey) {
+        Limit limit = limits.get(routeKey);
+        return limit == null ? null : limit.keyType();
+    }
+
+    /**
+     * Takes one token for the client on the route. Returns 0 when the request may proceed,
+     * otherwise the seconds the client should wait.
+     */
+    public long tryAcquire(String routeKey, String clientKey) {
+        Limit limit = limits.get(routeKey);
+        if (limit == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        TokenBucket bucket = limit.buckets().computeIfAbsent(clientKey,
+                k -> new TokenBucket(limit.capacity(), limit.intervalNanos(), now));
+        long waitNanos = bucket.tryAcquire(now);
+        return waitNanos == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        limits.values().forEach(limit -> limit.buckets().values().removeIf(bucket -> bucket.isIdle(now)));
+    }
+}
@@ -0,0 +1,49 @@
+package cz.utb.kovarna.infrastructure.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket stored as a single "theoretical arrival time" (GCRA form).
+ *
+ * A bucket with capacity C refilled at one token per interval T is equivalent to accepting
+ * a request at time now while tat - now <= (C - 1) * T and then advancing tat by T.
+ * The whole state is one long, so acquiring is a single CAS and no refill timer is needed.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, long intervalNanos, long now) {
+        this.intervalNanos = intervalNanos;
+        this.toleranceNanos = (capacity - 1) * intervalNanos;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Takes one token. Returns 0 when the request is allowed, otherwise the nanoseconds
+     * until the next token becomes available.
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long start = Math.max(tat, now);
+            long wait = start - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(tat, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A bucket is idle once it has refilled completely; dropping it is then
+     * indistinguishable from keeping it.
+     */
+    public boolean isIdle(long now) {
+        return theoreticalArrival.get() <= now;
+    }
+}
@@ -0,0 +1,11 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+/**
+ * A reservation changed by one of the set-based admin operations in ReservationRepository.
+ */
+public interface BulkChangeView {
+    Long getId();
+    Long getSlotId();
+    int getGuestCount();
+    String getUsername();
+}
@@ -0,0 +1,15 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+import java.time.LocalDate;
+
+/**
+ * A ledger row whose counters did not match the reservations, as found by SlotCapacityRepository.correctDrift.
+ */
+public interface CapacityDriftView {
+    Long getSlotId();
+    LocalDate getReservationDate();
+    int getLedgerReservations();
+    int getActualReservations();
+    int getLedgerSeats();
+    int getActualSeats();
+}
@@ -0,0 +1,11 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+import cz.utb.kovarna.domain.entity.DiningTable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface DiningTableRepository extends JpaRepository<DiningTable, Long> {
+    List<DiningTable> findByActiveTrue();
+    boolean existsByName(String name);
+}
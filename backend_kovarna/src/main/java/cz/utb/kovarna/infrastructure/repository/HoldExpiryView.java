@@ -0,0 +1,12 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Id and expiry of an open hold, used to rebuild the expiry wheel at startup.
+ */
+public interface HoldExpiryView {
+    UUID getId();
+    LocalDateTime getExpiresAt();
+}
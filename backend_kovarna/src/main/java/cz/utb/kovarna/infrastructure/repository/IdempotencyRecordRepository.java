@@ -0,0 +1,83 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+import cz.utb.kovarna.domain.entity.IdempotencyRecord;
+import cz.utb.kovarna.domain.entity.IdempotencyRecordId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Each statement commits on its own, so a claim is visible to concurrent duplicates
+ * before the request itself runs.
+ */
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, IdempotencyRecordId> {
+
+    /**
+     * Claims the key with the given token, or takes over a claim of the same request that was not
+     * refreshed since staleBefore; returns 0 when the key is completed, claimed by a running request
+     * or used by another request.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO idempotency_keys (username, idempotency_key, request_hash, status, created_at, claimed_at, claim_token)
+            VALUES (:username, :key, :requestHash, 'IN_PROGRESS', :now, :now, :token)
+            ON CONFLICT (username, idempotency_key) DO UPDATE
+            SET claimed_at = EXCLUDED.claimed_at, claim_token = EXCLUDED.claim_token
+            WHERE idempotency_keys.status = 'IN_PROGRESS'
+              AND idempotency_keys.request_hash = EXCLUDED.request_hash
+              AND idempotency_keys.claimed_at < :staleBefore
+            """, nativeQuery = true)
+    int claim(@Param("username") String username, @Param("key") String key,
+              @Param("requestHash") String requestHash, @Param("token") String token,
+              @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Keeps a running request's claim from going stale; returns 0 when it was taken over.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE idempotency_keys SET claimed_at = :now
+            WHERE username = :username AND idempotency_key = :key
+              AND status = 'IN_PROGRESS' AND claim_token = :token
+            """, nativeQuery = true)
+    int refresh(@Param("username") String username, @Param("key") String key,
+                @Param("token") String token, @Param("now") LocalDateTime now);
+
+    /**
+     * Stores the response; returns 0 when the claim is no longer held with the token.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE idempotency_keys SET status = 'COMPLETED', response_body = :responseBody
+            WHERE username = :username AND idempotency_key = :key
+              AND status = 'IN_PROGRESS' AND claim_token = :token
+            """, nativeQuery = true)
+    int complete(@Param("username") String username, @Param("key") String key,
+                 @Param("token") String token, @Param("responseBody") String responseBody);
+
+    /**
+     * Frees a claim whose request failed, so the client may retry with the same key;
+     * a claim taken over by another request is left alone.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM idempotency_keys
+            WHERE username = :username AND idempotency_key = :key
+              AND status = 'IN_PROGRESS' AND claim_token = :token
+            """, nativeQuery = true)
+    int abandon(@Param("username") String username, @Param("key") String key,
+                @Param("token") String token);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM idempotency_keys WHERE created_at < :before", nativeQuery = true)
+    int purgeOlderThan(@Param("before") LocalDateTime before);
+}
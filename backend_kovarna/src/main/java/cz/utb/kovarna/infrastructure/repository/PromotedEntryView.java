@@ -0,0 +1,10 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+/**
+ * Waiting entry that was promoted, with its new reservation and the user to notify.
+ */
+public interface PromotedEntryView {
+    Long getEntryId();
+    Long getReservationId();
+    String getUsername();
+}
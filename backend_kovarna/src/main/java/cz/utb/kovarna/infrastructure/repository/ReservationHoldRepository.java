@@ -0,0 +1,39 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+import cz.utb.kovarna.domain.entity.ReservationHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ReservationHoldRepository extends JpaRepository<ReservationHold, UUID> {
+
+    /**
+     * Locks the hold so that confirming and expiring it cannot both succeed.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM ReservationHold h WHERE h.id = :id")
+    Optional<ReservationHold> findByIdForUpdate(@Param("id") UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM ReservationHold h WHERE h.user.id = :userId")
+    Optional<ReservationHold> findByUserIdForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Locks the holds of the batch that are really past their expiry; holds confirmed
+     * in the meantime are simply no longer there.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM ReservationHold h WHERE h.id IN :ids AND h.expiresAt <= :now")
+    List<ReservationHold> findExpiredForUpdate(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Query("SELECT h.id AS id, h.expiresAt AS expiresAt FROM ReservationHold h")
+    List<HoldExpiryView> findAllExpiries();
+}
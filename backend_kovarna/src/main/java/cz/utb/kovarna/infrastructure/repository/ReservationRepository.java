@@ -1,15 +1,239 @@
 package cz.utb.kovarna.infrastructure.repository;
 
+import cz.utb.kovarna.application.dto.ReservationResponseDto;
 import cz.utb.kovarna.domain.entity.Reservation;
 import cz.utb.kovarna.domain.entity.ReservationSlot;
 import cz.utb.kovarna.domain.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, ReservationSearchRepository {
     List<Reservation> findByReservationDateAndSlot(LocalDate date, ReservationSlot slot);
     List<Reservation> findByUser(User user);
     boolean existsByUserAndReservationDate(User user, LocalDate date);
+
+    /**
+     * Books a party in one statement: takes a reservation and guestCount seats in the ledger
+     * (same conditional update as SlotCapacityRepository.tryReserve) and inserts the reservation.
+     * Returns the new reservation id, or empty when the slot is not offered on that date,
+     * cannot seat the party or the user is unknown.
+     * A second active reservation of the same user on that day violates
+     * ux_reservations_user_date_active and aborts the whole statement.
+     */
+    @Query(value = """
+            WITH booking_user AS (
+                SELECT id FROM users WHERE username = :username
+            ),
+            capacity AS (
+                UPDATE slot_date_capacity c
+                SET current_reservations = c.current_reservations + 1,
+                    booked_seats = c.booked_seats + :guestCount
+                FROM reservation_slots s, booking_user
+                WHERE c.slot_id = :slotId AND c.reservation_date = :date AND c.offered
+                  AND s.id = c.slot_id
+                  AND c.current_reservations < s.max_reservations
+                  AND c.booked_seats + :guestCount <= s.max_seats
+                RETURNING c.slot_id
+            )
+            INSERT INTO reservations (user_id, slot_id, reservation_date, guest_count, status)
+            SELECT booking_user.id, capacity.slot_id, :date, :guestCount, 'ACTIVE'
+            FROM capacity, booking_user
+            RETURNING id
+            """, nativeQuery = true)
+    Optional<Long> book(@Param("username") String username,
+                        @Param("slotId") Long slotId,
+                        @Param("date") LocalDate date,
+                        @Param("guestCount") int guestCount);
+
+    @Query("""
+            SELECT r.id AS id, r.slot.id AS slotId, r.guestCount AS guestCount, t.id AS tableId
+            FROM Reservation r LEFT JOIN r.table t
+            WHERE r.reservationDate = :date AND r.status <> 'CANCELLED'
+            """)
+    List<TablePlacementView> findTablePlacements(@Param("date") LocalDate date);
+
+    @Modifying
+    @Query(value = "UPDATE reservations SET table_id = :tableId WHERE id = :id", nativeQuery = true)
+    int assignTable(@Param("id") Long id, @Param("tableId") Long tableId);
+
+    /**
+     * The user's reservations from today on, soonest first, continuing after (cursorDate, cursorId).
+     * Served by idx_reservations_user_date plus the slot times.
+     */
+    @Query("""
+            SELECT new cz.utb.kovarna.application.dto.ReservationResponseDto(
+                r.id, r.id, u.username, r.reservationDate, r.reservationDate,
+                s.slotFrom, s.slotTo, s.id, r.guestCount, r.status)
+            FROM Reservation r JOIN r.user u JOIN r.slot s
+            WHERE u.username = :username AND r.reservationDate >= :today
+              AND (:cursorDate IS NULL
+                   OR r.reservationDate > :cursorDate
+                   OR (r.reservationDate = :cursorDate AND r.id > :cursorId))
+            ORDER BY r.reservationDate, r.id
+            """)
+    List<ReservationResponseDto> findUpcoming(@Param("username") String username,
+                                              @Param("today") LocalDate today,
+                                              @Param("cursorDate") LocalDate cursorDate,
+                                              @Param("cursorId") Long cursorId,
+                                              Pageable pageable);
+
+    /**
+     * The user's past reservations, most recent first, continuing after (cursorDate, cursorId).
+     */
+    @Query("""
+            SELECT new cz.utb.kovarna.application.dto.ReservationResponseDto(
+                r.id, r.id, u.username, r.reservationDate, r.reservationDate,
+                s.slotFrom, s.slotTo, s.id, r.guestCount, r.status)
+            FROM Reservation r JOIN r.user u JOIN r.slot s
+            WHERE u.username = :username AND r.reservationDate < :today
+              AND (:cursorDate IS NULL
+                   OR r.reservationDate < :cursorDate
+                   OR (r.reservationDate = :cursorDate AND r.id < :cursorId))
+            ORDER BY r.reservationDate DESC, r.id DESC
+            """)
+    List<ReservationResponseDto> findHistory(@Param("username") String username,
+                                             @Param("today") LocalDate today,
+                                             @Param("cursorDate") LocalDate cursorDate,
+                                             @Param("cursorId") Long cursorId,
+                                             Pageable pageable);
+
+    /**
+     * Days on which the given users already hold an active reservation, within a date range.
+     */
+    @Query("""
+            SELECT r.user.id AS userId, r.reservationDate AS reservationDate FROM Reservation r
+            WHERE r.user.id IN :userIds AND r.reservationDate BETWEEN :from AND :to AND r.status <> 'CANCELLED'
+            """)
+    List<UserDateView> findActiveUserDates(@Param("userIds") Collection<Long> userIds,
+                                           @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+
+    /**
+     * Cancels every active reservation of the date (of one slot when slotId is given) and gives
+     * their places back in the ledger, in one statement. Returns the cancelled reservations.
+     */
+    @Query(value = """
+            WITH cancelled AS (
+                UPDATE reservations r SET status = 'CANCELLED'
+                WHERE r.reservation_date = :date AND r.status <> 'CANCELLED'
+                  AND (CAST(:slotId AS BIGINT) IS NULL OR r.slot_id = CAST(:slotId AS BIGINT))
+                RETURNING r.id, r.slot_id, r.guest_count, r.user_id
+            ),
+            freed AS (
+                SELECT slot_id, COUNT(*)::int AS reservations, SUM(guest_count)::int AS seats
+                FROM cancelled GROUP BY slot_id
+            ),
+            ledger AS (
+                UPDATE slot_date_capacity c
+                SET current_reservations = GREATEST(c.current_reservations - f.reservations, 0),
+                    booked_seats = GREATEST(c.booked_seats - f.seats, 0)
+                FROM freed f
+                WHERE c.slot_id = f.slot_id AND c.reservation_date = :date
+            )
+            SELECT c.id AS "id", c.slot_id AS "slotId", c.guest_count AS "guestCount", u.username AS "username"
+            FROM cancelled c JOIN users u ON u.id = c.user_id
+            ORDER BY c.id
+            """, nativeQuery = true)
+    List<BulkChangeView> cancelAll(@Param("date") LocalDate date, @Param("slotId") Long slotId);
+
+    /**
+     * Closes the date (or one slot on it): records the closure so the slot is not offered again,
+     * stops new bookings, cancels the waitlist and cancels every active reservation as cancelAll does.
+     */
+    @Query(value = """
+            WITH closure AS (
+                INSERT INTO slot_closures (closure_date, slot_id, reason)
+                VALUES (:date, CAST(:slotId AS BIGINT), :reason)
+                ON CONFLICT (closure_date, COALESCE(slot_id, 0)) DO NOTHING
+            ),
+            waitlist AS (
+                UPDATE waitlist_entries w SET status = 'CANCELLED'
+                WHERE w.reservation_date = :date AND w.status = 'WAITING'
+                  AND (CAST(:slotId AS BIGINT) IS NULL OR w.slot_id = CAST(:slotId AS BIGINT))
+            ),
+            cancelled AS (
+                UPDATE reservations r SET status = 'CANCELLED'
+                WHERE r.reservation_date = :date AND r.status <> 'CANCELLED'
+                  AND (CAST(:slotId AS BIGINT) IS NULL OR r.slot_id = CAST(:slotId AS BIGINT))
+                RETURNING r.id, r.slot_id, r.guest_count, r.user_id
+            ),
+            freed AS (
+                SELECT slot_id, COUNT(*)::int AS reservations, SUM(guest_count)::int AS seats
+                FROM cancelled GROUP BY slot_id
+            ),
+            ledger AS (
+                UPDATE slot_date_capacity c
+                SET offered = false,
+                    current_reservations = GREATEST(c.current_reservations
+                        - COALESCE((SELECT f.reservations FROM freed f WHERE f.slot_id = c.slot_id), 0), 0),
+                    booked_seats = GREATEST(c.booked_seats
+                        - COALESCE((SELECT f.seats FROM freed f WHERE f.slot_id = c.slot_id), 0), 0)
+                WHERE c.reservation_date = :date
+                  AND (CAST(:slotId AS BIGINT) IS NULL OR c.slot_id = CAST(:slotId AS BIGINT))
+            )
+            SELECT c.id AS "id", c.slot_id AS "slotId", c.guest_count AS "guestCount", u.username AS "username"
+            FROM cancelled c JOIN users u ON u.id = c.user_id
+            ORDER BY c.id
+            """, nativeQuery = true)
+    List<BulkChangeView> closeAll(@Param("date") LocalDate date, @Param("slotId") Long slotId,
+                                  @Param("reason") String reason);
+
+    /**
+     * Moves every active reservation of a slot on the date to another slot, all or nothing:
+     * the target slot must be offered and have room for all of them. The ledger of both slots is
+     * adjusted in the same statement. Returns the moved reservations (none when the target is too small).
+     */
+    @Query(value = """
+            WITH moving AS (
+                SELECT r.id, r.guest_count, r.user_id FROM reservations r
+                WHERE r.reservation_date = :date AND r.slot_id = :fromSlotId AND r.status <> 'CANCELLED'
+                FOR UPDATE
+            ),
+            totals AS (
+                SELECT COUNT(*)::int AS reservations, COALESCE(SUM(guest_count), 0)::int AS seats FROM moving
+            ),
+            target AS (
+                UPDATE slot_date_capacity c
+                SET current_reservations = c.current_reservations + t.reservations,
+                    booked_seats = c.booked_seats + t.seats
+                FROM totals t, reservation_slots s
+                WHERE c.slot_id = :toSlotId AND c.reservation_date = :date AND c.offered
+                  AND s.id = c.slot_id AND t.reservations > 0
+                  AND c.current_reservations + t.reservations <= s.max_reservations
+                  AND c.booked_seats + t.seats <= s.max_seats
+                RETURNING c.slot_id
+            ),
+            source AS (
+                UPDATE slot_date_capacity c
+                SET current_reservations = GREATEST(c.current_reservations - t.reservations, 0),
+                    booked_seats = GREATEST(c.booked_seats - t.seats, 0)
+                FROM totals t, target
+                WHERE c.slot_id = :fromSlotId AND c.reservation_date = :date
+            ),
+            moved AS (
+                UPDATE reservations r SET slot_id = target.slot_id
+                FROM target, moving m
+                WHERE r.id = m.id AND r.reservation_date = :date
+                RETURNING r.id, r.slot_id, r.guest_count, r.user_id
+            )
+            SELECT m.id AS "id", m.slot_id AS "slotId", m.guest_count AS "guestCount", u.username AS "username"
+            FROM moved m JOIN users u ON u.id = m.user_id
+            ORDER BY m.id
+            """, nativeQuery = true)
+    List<BulkChangeView> moveAll(@Param("date") LocalDate date, @Param("fromSlotId") Long fromSlotId,
+                                 @Param("toSlotId") Long toSlotId);
+
+    @Query("""
+            SELECT COUNT(r) FROM Reservation r
+            WHERE r.reservationDate = :date AND r.slot.id = :slotId AND r.status <> 'CANCELLED'
+            """)
+    long countActive(@Param("date") LocalDate date, @Param("slotId") Long slotId);
 }
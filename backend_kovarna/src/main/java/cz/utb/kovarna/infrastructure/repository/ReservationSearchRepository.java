@@ -0,0 +1,20 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+import cz.utb.kovarna.application.dto.ReservationResponseDto;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Admin reservation search, built per call from the filters actually given (see the implementation).
+ */
+public interface ReservationSearchRepository {
+
+    /**
+     * Reservations built directly as DTOs in one statement (no per-row user/slot selects).
+     * Newest first; keyset pagination continues after (cursorDate, cursorId). Null filters are ignored.
+     */
+    List<ReservationResponseDto> search(LocalDate from, LocalDate to, String status, Long slotId, String username,
+                                        LocalDate cursorDate, Long cursorId, Pageable pageable);
+}
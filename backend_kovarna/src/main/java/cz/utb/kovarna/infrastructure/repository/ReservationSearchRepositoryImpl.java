@@ -0,0 +1,76 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+import cz.utb.kovarna.application.dto.ReservationResponseDto;
+import cz.utb.kovarna.domain.entity.Reservation;
+import cz.utb.kovarna.domain.entity.ReservationSlot;
+import cz.utb.kovarna.domain.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Only the filters that are set become predicates. A static query with
+ * (:x IS NULL OR col = :x) for every filter gets one plan for all combinations,
+ * which cannot use the date, user or slot indexes.
+ */
+@RequiredArgsConstructor
+public class ReservationSearchRepositoryImpl implements ReservationSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<ReservationResponseDto> search(LocalDate from, LocalDate to, String status, Long slotId,
+                                               String username, LocalDate cursorDate, Long cursorId,
+                                               Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReservationResponseDto> query = cb.createQuery(ReservationResponseDto.class);
+        Root<Reservation> r = query.from(Reservation.class);
+        Join<Reservation, User> u = r.join("user");
+        Join<Reservation, ReservationSlot> s = r.join("slot");
+        Path<LocalDate> date = r.get("reservationDate");
+        Path<Long> id = r.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        if (from != null) {
+            where.add(cb.greaterThanOrEqualTo(date, from));
+        }
+        if (to != null) {
+            where.add(cb.lessThanOrEqualTo(date, to));
+        }
+        if (status != null) {
+            where.add(cb.equal(r.get("status"), status));
+        }
+        if (slotId != null) {
+            where.add(cb.equal(s.get("id"), slotId));
+        }
+        if (username != null) {
+            where.add(cb.equal(u.get("username"), username));
+        }
+        if (cursorDate != null) {
+            where.add(cb.or(
+                    cb.lessThan(date, cursorDate),
+                    cb.and(cb.equal(date, cursorDate), cb.lessThan(id, cursorId))));
+        }
+
+        query.select(cb.construct(ReservationResponseDto.class,
+                        id, id, u.get("username"), date, date,
+                        s.get("slotFrom"), s.get("slotTo"), s.get("id"), r.get("guestCount"), r.get("status")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.desc(date), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+}
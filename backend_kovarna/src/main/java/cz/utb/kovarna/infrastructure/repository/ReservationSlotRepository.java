@@ -4,7 +4,8 @@ import cz.utb.kovarna.domain.entity.ReservationSlot;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.time.LocalTime;
+import java.util.List;
 
 public interface ReservationSlotRepository extends JpaRepository<ReservationSlot, Long> {
-    boolean existsBySlotFromAndSlotTo(LocalTime slotFrom, LocalTime slotTo);
+    List<ReservationSlot> findBySlotFromAndSlotTo(LocalTime slotFrom, LocalTime slotTo);
 }
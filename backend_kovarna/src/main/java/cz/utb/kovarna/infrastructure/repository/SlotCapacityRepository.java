@@ -0,0 +1,149 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+import cz.utb.kovarna.domain.entity.SlotCapacity;
+import cz.utb.kovarna.domain.entity.SlotCapacityId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface SlotCapacityRepository extends JpaRepository<SlotCapacity, SlotCapacityId> {
+
+    /**
+     * Takes one reservation and the given number of seats in the slot on the given date.
+     * Returns 0 when the slot is not offered on that date or cannot seat the party.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE slot_date_capacity c
+            SET current_reservations = c.current_reservations + 1,
+                booked_seats = c.booked_seats + :seats
+            FROM reservation_slots s
+            WHERE c.slot_id = :slotId AND c.reservation_date = :date AND c.offered
+              AND s.id = c.slot_id
+              AND c.current_reservations < s.max_reservations
+              AND c.booked_seats + :seats <= s.max_seats
+            """, nativeQuery = true)
+    int tryReserve(@Param("slotId") Long slotId, @Param("date") LocalDate date, @Param("seats") int seats);
+
+    /**
+     * Takes several reservations and their seats at once (bulk import); all or nothing.
+     * Admin imports may target dates the slot is not offered on; such ledger rows are created not offered.
+     * Returns 0 when the slot is unknown or cannot take them all.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO slot_date_capacity (slot_id, reservation_date, current_reservations, booked_seats)
+            SELECT s.id, :date, :reservations, :seats FROM reservation_slots s
+            WHERE s.id = :slotId AND s.max_reservations >= :reservations AND s.max_seats >= :seats
+            ON CONFLICT (slot_id, reservation_date) DO UPDATE
+            SET current_reservations = slot_date_capacity.current_reservations + EXCLUDED.current_reservations,
+                booked_seats = slot_date_capacity.booked_seats + EXCLUDED.booked_seats
+            WHERE EXISTS (
+                SELECT 1 FROM reservation_slots s
+                WHERE s.id = EXCLUDED.slot_id
+                  AND slot_date_capacity.current_reservations + EXCLUDED.current_reservations <= s.max_reservations
+                  AND slot_date_capacity.booked_seats + EXCLUDED.booked_seats <= s.max_seats
+            )
+            """, nativeQuery = true)
+    int tryReserveMany(@Param("slotId") Long slotId, @Param("date") LocalDate date,
+                       @Param("reservations") int reservations, @Param("seats") int seats);
+
+    /**
+     * Gives one reservation and its seats back, never going below zero.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE slot_date_capacity
+            SET current_reservations = GREATEST(current_reservations - 1, 0),
+                booked_seats = GREATEST(booked_seats - :seats, 0)
+            WHERE slot_id = :slotId AND reservation_date = :date
+            """, nativeQuery = true)
+    int release(@Param("slotId") Long slotId, @Param("date") LocalDate date, @Param("seats") int seats);
+
+    /**
+     * Changes the seats held by an existing reservation (guest count edit).
+     * Growing fails with 0 rows when the slot has no more free seats; shrinking always succeeds.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE slot_date_capacity c
+            SET booked_seats = GREATEST(c.booked_seats + :delta, 0)
+            FROM reservation_slots s
+            WHERE c.slot_id = :slotId AND c.reservation_date = :date AND s.id = c.slot_id
+              AND (:delta <= 0 OR c.booked_seats + :delta <= s.max_seats)
+            """, nativeQuery = true)
+    int resizeSeats(@Param("slotId") Long slotId, @Param("date") LocalDate date, @Param("delta") int delta);
+
+    List<SlotCapacity> findByIdReservationDate(LocalDate date);
+
+    List<SlotCapacity> findByIdReservationDateBetween(LocalDate from, LocalDate to);
+
+    List<SlotCapacity> findByIdReservationDateIn(Collection<LocalDate> dates);
+
+    /**
+     * Locks the ledger rows of the given dates (in key order, so concurrent callers cannot deadlock).
+     * Every write path updates its ledger row before committing, so once the locks are held
+     * the reservations of these rows can no longer change under the drift correction below.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM SlotCapacity c WHERE c.id.reservationDate IN :dates ORDER BY c.id.slotId, c.id.reservationDate")
+    List<SlotCapacity> lockByReservationDateIn(@Param("dates") Collection<LocalDate> dates);
+
+    /**
+     * Recomputes occupancy of the given dates from reservations (not cancelled) and open holds
+     * with one aggregate query, and rewrites the ledger rows that differ. Returns the drifted rows
+     * with their ledger and actual values. Missing ledger rows are created; a row created by a
+     * concurrent booking in the meantime is left alone and checked on the next run.
+     */
+    @Transactional
+    @Query(value = """
+            WITH actual AS (
+                SELECT slot_id, reservation_date, COUNT(*)::int AS reservations, SUM(guest_count)::int AS seats
+                FROM (
+                    SELECT slot_id, reservation_date, guest_count FROM reservations
+                    WHERE reservation_date IN (:dates) AND status <> 'CANCELLED'
+                    UNION ALL
+                    SELECT slot_id, reservation_date, guest_count FROM reservation_holds
+                    WHERE reservation_date IN (:dates)
+                ) booked
+                GROUP BY slot_id, reservation_date
+            ),
+            drift AS (
+                SELECT COALESCE(c.slot_id, a.slot_id) AS slot_id,
+                       COALESCE(c.reservation_date, a.reservation_date) AS reservation_date,
+                       COALESCE(c.current_reservations, 0) AS ledger_reservations,
+                       COALESCE(a.reservations, 0) AS actual_reservations,
+                       COALESCE(c.booked_seats, 0) AS ledger_seats,
+                       COALESCE(a.seats, 0) AS actual_seats,
+                       c.slot_id IS NOT NULL AS tracked
+                FROM (SELECT * FROM slot_date_capacity WHERE reservation_date IN (:dates)) c
+                FULL JOIN actual a ON a.slot_id = c.slot_id AND a.reservation_date = c.reservation_date
+                WHERE COALESCE(c.current_reservations, 0) <> COALESCE(a.reservations, 0)
+                   OR COALESCE(c.booked_seats, 0) <> COALESCE(a.seats, 0)
+            ),
+            corrected AS (
+                UPDATE slot_date_capacity c
+                SET current_reservations = d.actual_reservations, booked_seats = d.actual_seats
+                FROM drift d
+                WHERE d.tracked AND c.slot_id = d.slot_id AND c.reservation_date = d.reservation_date
+            ),
+            created AS (
+                INSERT INTO slot_date_capacity (slot_id, reservation_date, current_reservations, booked_seats)
+                SELECT slot_id, reservation_date, actual_reservations, actual_seats FROM drift WHERE NOT tracked
+                ON CONFLICT (slot_id, reservation_date) DO NOTHING
+            )
+            SELECT slot_id AS "slotId", reservation_date AS "reservationDate",
+                   ledger_reservations AS "ledgerReservations", actual_reservations AS "actualReservations",
+                   ledger_seats AS "ledgerSeats", actual_seats AS "actualSeats"
+            FROM drift
+            """, nativeQuery = true)
+    List<CapacityDriftView> correctDrift(@Param("dates") Collection<LocalDate> dates);
+}
@@ -0,0 +1,53 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+import cz.utb.kovarna.domain.entity.SlotDemandStats;
+import cz.utb.kovarna.domain.entity.SlotDemandStatsId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SlotDemandStatsRepository extends JpaRepository<SlotDemandStats, SlotDemandStatsId> {
+
+    /**
+     * Adds the given deltas to the rollup row of the slot on the date, creating it on first use.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO slot_demand_stats (reservation_date, slot_id, bookings, booked_covers,
+                                           cancellations, cancelled_covers, waitlisted)
+            VALUES (:date, :slotId, :bookings, :bookedCovers, :cancellations, :cancelledCovers, :waitlisted)
+            ON CONFLICT (reservation_date, slot_id) DO UPDATE
+            SET bookings = slot_demand_stats.bookings + EXCLUDED.bookings,
+                booked_covers = slot_demand_stats.booked_covers + EXCLUDED.booked_covers,
+                cancellations = slot_demand_stats.cancellations + EXCLUDED.cancellations,
+                cancelled_covers = slot_demand_stats.cancelled_covers + EXCLUDED.cancelled_covers,
+                waitlisted = slot_demand_stats.waitlisted + EXCLUDED.waitlisted
+            """, nativeQuery = true)
+    int add(@Param("slotId") Long slotId, @Param("date") LocalDate date,
+            @Param("bookings") int bookings, @Param("bookedCovers") int bookedCovers,
+            @Param("cancellations") int cancellations, @Param("cancelledCovers") int cancelledCovers,
+            @Param("waitlisted") int waitlisted);
+
+    /**
+     * Adds reservations moved out of and into the slot on the date, creating the row on first use.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO slot_demand_stats (reservation_date, slot_id, moved_out, moved_out_covers, moved_in, moved_in_covers)
+            VALUES (:date, :slotId, :movedOut, :movedOutCovers, :movedIn, :movedInCovers)
+            ON CONFLICT (reservation_date, slot_id) DO UPDATE
+            SET moved_out = slot_demand_stats.moved_out + EXCLUDED.moved_out,
+                moved_out_covers = slot_demand_stats.moved_out_covers + EXCLUDED.moved_out_covers,
+                moved_in = slot_demand_stats.moved_in + EXCLUDED.moved_in,
+                moved_in_covers = slot_demand_stats.moved_in_covers + EXCLUDED.moved_in_covers
+            """, nativeQuery = true)
+    int addMoved(@Param("slotId") Long slotId, @Param("date") LocalDate date,
+                 @Param("movedOut") int movedOut, @Param("movedOutCovers") int movedOutCovers,
+                 @Param("movedIn") int movedIn, @Param("movedInCovers") int movedInCovers);
+
+    List<SlotDemandStats> findByIdReservationDateBetween(LocalDate from, LocalDate to);
+}
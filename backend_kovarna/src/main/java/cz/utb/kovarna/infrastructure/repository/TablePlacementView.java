@@ -0,0 +1,11 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+/**
+ * Minimal view of a reservation needed to rebuild the table plan of a date.
+ */
+public interface TablePlacementView {
+    Long getId();
+    Long getSlotId();
+    int getGuestCount();
+    Long getTableId();
+}
@@ -0,0 +1,9 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+/**
+ * A user whose tokens issued at or before tokensValidAfter (epoch second) are revoked.
+ */
+public interface TokenRevocationView {
+    Long getId();
+    Long getTokensValidAfter();
+}
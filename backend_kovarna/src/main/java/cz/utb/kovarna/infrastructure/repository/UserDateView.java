@@ -0,0 +1,11 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+import java.time.LocalDate;
+
+/**
+ * A day on which a user holds an active reservation.
+ */
+public interface UserDateView {
+    Long getUserId();
+    LocalDate getReservationDate();
+}
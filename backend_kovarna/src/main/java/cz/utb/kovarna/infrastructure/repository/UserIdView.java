@@ -0,0 +1,9 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+/**
+ * Id of a user looked up by username, without loading the entity and its roles.
+ */
+public interface UserIdView {
+    Long getId();
+    String getUsername();
+}
@@ -0,0 +1,9 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+/**
+ * Username and email of an existing user, for duplicate checks without loading the entity.
+ */
+public interface UserIdentityView {
+    String getUsername();
+    String getEmail();
+}
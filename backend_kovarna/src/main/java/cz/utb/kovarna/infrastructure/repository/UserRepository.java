@@ -2,10 +2,47 @@ package cz.utb.kovarna.infrastructure.repository;
 
 import cz.utb.kovarna.domain.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u.id AS id, u.username AS username FROM User u WHERE u.username IN :usernames")
+    List<UserIdView> findIdsByUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.username AS username, u.email AS email FROM User u "
+            + "WHERE u.username IN :usernames OR u.email IN :emails")
+    List<UserIdentityView> findIdentities(@Param("usernames") Collection<String> usernames,
+                                          @Param("emails") Collection<String> emails);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :passwordHash WHERE u.id = :id")
+    int updatePasswordHash(@Param("id") Long id, @Param("passwordHash") String passwordHash);
+
+    /**
+     * Revokes the user's tokens issued at or before the given epoch second; never moves the mark back.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE users
+            SET tokens_valid_after = GREATEST(COALESCE(tokens_valid_after, 0), :epochSecond)
+            WHERE id = :id
+            """, nativeQuery = true)
+    int revokeTokens(@Param("id") Long id, @Param("epochSecond") long epochSecond);
+
+    @Query(value = """
+            SELECT id AS "id", tokens_valid_after AS "tokensValidAfter"
+            FROM users
+            WHERE tokens_valid_after > :cutoff
+            """, nativeQuery = true)
+    List<TokenRevocationView> findTokenRevocationsAfter(@Param("cutoff") long cutoff);
 }
@@ -0,0 +1,9 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+/**
+ * Waiting entry as needed to decide whether it can be promoted.
+ */
+public interface WaitlistCandidateView {
+    Long getId();
+    int getGuestCount();
+}
@@ -0,0 +1,91 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+import cz.utb.kovarna.domain.entity.User;
+import cz.utb.kovarna.domain.entity.WaitlistEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findByUserOrderByCreatedAtDesc(User user);
+
+    /**
+     * Head of the queue of a (slot, date), oldest first.
+     */
+    @Query("""
+            SELECT w.id AS id, w.guestCount AS guestCount FROM WaitlistEntry w
+            WHERE w.slot.id = :slotId AND w.reservationDate = :date AND w.status = 'WAITING'
+            ORDER BY w.createdAt, w.id
+            """)
+    List<WaitlistCandidateView> findQueue(@Param("slotId") Long slotId, @Param("date") LocalDate date,
+                                          Pageable pageable);
+
+    /**
+     * Every (slot, date) that still has people waiting, from the given date on.
+     */
+    @Query("""
+            SELECT DISTINCT w.slot.id AS slotId, w.reservationDate AS reservationDate FROM WaitlistEntry w
+            WHERE w.status = 'WAITING' AND w.reservationDate >= :from
+            """)
+    List<WaitlistKeyView> findWaitingKeys(@Param("from") LocalDate from);
+
+    /**
+     * Promotes a batch of waiting entries of one (slot, date) in a single statement: takes their
+     * reservations and seats in the ledger in one conditional update (only if the slot can take
+     * the whole batch), inserts the reservations and marks the entries PROMOTED. Entries that are no
+     * longer waiting, or whose user meanwhile booked another reservation that day, are left out;
+     * nothing is promoted when the ledger has no room for the rest.
+     */
+    @Query(value = """
+            WITH entry AS (
+                SELECT w.id, w.user_id, w.slot_id, w.reservation_date, w.guest_count
+                FROM waitlist_entries w
+                WHERE w.id IN (:entryIds) AND w.status = 'WAITING'
+                  AND NOT EXISTS (
+                      SELECT 1 FROM reservations r
+                      WHERE r.user_id = w.user_id AND r.reservation_date = w.reservation_date
+                        AND r.status <> 'CANCELLED'
+                  )
+                FOR UPDATE OF w SKIP LOCKED
+            ),
+            party AS (
+                SELECT slot_id, reservation_date, COUNT(*) AS reservations, SUM(guest_count) AS seats
+                FROM entry
+                GROUP BY slot_id, reservation_date
+            ),
+            capacity AS (
+                UPDATE slot_date_capacity c
+                SET current_reservations = c.current_reservations + party.reservations,
+                    booked_seats = c.booked_seats + party.seats
+                FROM party, reservation_slots s
+                WHERE c.slot_id = party.slot_id AND c.reservation_date = party.reservation_date
+                  AND c.offered AND s.id = c.slot_id
+                  AND c.current_reservations + party.reservations <= s.max_reservations
+                  AND c.booked_seats + party.seats <= s.max_seats
+                RETURNING c.slot_id, c.reservation_date
+            ),
+            promoted AS (
+                INSERT INTO reservations (user_id, slot_id, reservation_date, guest_count, status)
+                SELECT entry.user_id, entry.slot_id, entry.reservation_date, entry.guest_count, 'ACTIVE'
+                FROM entry
+                JOIN capacity ON capacity.slot_id = entry.slot_id
+                             AND capacity.reservation_date = entry.reservation_date
+                RETURNING id, user_id
+            )
+            UPDATE waitlist_entries w
+            SET status = 'PROMOTED', reservation_id = promoted.id
+            FROM promoted, entry, users u
+            WHERE entry.user_id = promoted.user_id AND w.id = entry.id AND u.id = entry.user_id
+            RETURNING w.id AS "entryId", promoted.id AS "reservationId", u.username AS "username"
+            """, nativeQuery = true)
+    List<PromotedEntryView> promoteAll(@Param("entryIds") Collection<Long> entryIds);
+
+    Optional<WaitlistEntry> findByIdAndUserUsername(Long id, String username);
+}
@@ -0,0 +1,11 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+import java.time.LocalDate;
+
+/**
+ * A (slot, date) pair with a non-empty waitlist.
+ */
+public interface WaitlistKeyView {
+    Long getSlotId();
+    LocalDate getReservationDate();
+}
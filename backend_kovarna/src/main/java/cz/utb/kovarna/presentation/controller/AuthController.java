@@ -6,7 +6,6 @@ import cz.utb.kovarna.application.dto.LoginRequestDto;
 import cz.utb.kovarna.application.dto.UserRegistrationDto;
 import cz.utb.kovarna.application.dto.UserResponseDto;
 import cz.utb.kovarna.domain.entity.User;
-import cz.utb.kovarna.infrastructure.config.UserPrincipal;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -17,7 +16,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -49,7 +48,8 @@ public class AuthController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Login successful",
                     content = @Content(schema = @Schema(implementation = AuthResponseDto.class))),
-            @ApiResponse(responseCode = "401", description = "Invalid credentials")
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "503", description = "Too many logins being checked, retry shortly")
     })
     @PostMapping("/login")
     public ResponseEntity<AuthResponseDto> login(@RequestBody LoginRequestDto dto) {
@@ -67,10 +67,11 @@ public class AuthController {
             @ApiResponse(responseCode = "401", description = "Not authenticated")
     })
     @GetMapping("/me")
-    public ResponseEntity<UserResponseDto> getCurrentUser(@AuthenticationPrincipal UserPrincipal principal) {
-        if (principal == null) {
+    public ResponseEntity<UserResponseDto> getCurrentUser(Authentication authentication) {
+        if (authentication == null) {
             return ResponseEntity.status(401).build();
         }
-        return ResponseEntity.ok(new UserResponseDto(principal.getUser()));
+        // The token only carries id, roles and enabled flag, the profile is read from the database
+        return ResponseEntity.ok(new UserResponseDto(authService.findByUsername(authentication.getName())));
     }
 }
@@ -1,10 +1,18 @@
 package cz.utb.kovarna.presentation.controller;
 
+import cz.utb.kovarna.application.service.AvailabilityCalendarService;
+import cz.utb.kovarna.application.service.IdempotencyService;
+import cz.utb.kovarna.application.service.ReservationHoldService;
 import cz.utb.kovarna.application.service.ReservationService;
 import cz.utb.kovarna.application.service.ReservationSlotService;
+import cz.utb.kovarna.application.service.WaitlistService;
+import cz.utb.kovarna.application.dto.CalendarDayDto;
+import cz.utb.kovarna.application.dto.ReservationHoldDto;
+import cz.utb.kovarna.application.dto.ReservationPageDto;
 import cz.utb.kovarna.application.dto.ReservationRequestDto;
 import cz.utb.kovarna.application.dto.ReservationResponseDto;
 import cz.utb.kovarna.application.dto.ReservationSlotDto;
+import cz.utb.kovarna.application.dto.WaitlistEntryDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -17,6 +25,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/reservations")
@@ -27,15 +36,84 @@ public class ReservationController {
 
     private final ReservationService reservationService;
     private final ReservationSlotService slotService;
+    private final ReservationHoldService holdService;
+    private final WaitlistService waitlistService;
+    private final IdempotencyService idempotencyService;
+    private final AvailabilityCalendarService calendarService;
 
-    @Operation(summary = "Create reservation", description = "Create a new reservation for authenticated user")
+    @Operation(summary = "Create reservation", description = "Create a new reservation for authenticated user; "
+            + "retries sent with the same Idempotency-Key get the original response")
     @PostMapping
     public ResponseEntity<ReservationResponseDto> createReservation(
+            Authentication authentication,
+            @RequestBody @Valid ReservationRequestDto dto,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        String username = authentication.getName();
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(reservationService.createReservation(username, dto));
+        }
+        return ResponseEntity.ok(idempotencyService.execute(username, idempotencyKey, dto,
+                ReservationResponseDto.class, () -> reservationService.createReservation(username, dto)));
+    }
+
+    @Operation(summary = "Hold a place", description = "Hold a place in a slot for a few minutes while the reservation is being completed")
+    @PostMapping("/holds")
+    public ResponseEntity<ReservationHoldDto> createHold(
+            Authentication authentication,
+            @RequestBody @Valid ReservationRequestDto dto
+    ) {
+        String username = authentication.getName();
+        return ResponseEntity.ok(holdService.createHold(username, dto));
+    }
+
+    @Operation(summary = "Confirm hold", description = "Turn the user's hold into a reservation")
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<ReservationResponseDto> confirmHold(
+            @PathVariable UUID holdId,
+            Authentication authentication
+    ) {
+        String username = authentication.getName();
+        return ResponseEntity.ok(holdService.confirmHold(username, holdId));
+    }
+
+    @Operation(summary = "Release hold", description = "Give a held place back before it expires")
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<String> cancelHold(
+            @PathVariable UUID holdId,
+            Authentication authentication
+    ) {
+        String username = authentication.getName();
+        holdService.cancelHold(username, holdId);
+        return ResponseEntity.ok("Hold released successfully");
+    }
+
+    @Operation(summary = "Join waitlist", description = "Wait for a place in a full slot; the reservation is created automatically once a place frees up")
+    @PostMapping("/waitlist")
+    public ResponseEntity<WaitlistEntryDto> joinWaitlist(
             Authentication authentication,
             @RequestBody @Valid ReservationRequestDto dto
     ) {
         String username = authentication.getName();
-        return ResponseEntity.ok(reservationService.createReservation(username, dto));
+        return ResponseEntity.ok(waitlistService.join(username, dto));
+    }
+
+    @Operation(summary = "Get my waitlist entries", description = "Retrieve the waitlist entries of authenticated user")
+    @GetMapping("/waitlist")
+    public ResponseEntity<List<WaitlistEntryDto>> getMyWaitlist(Authentication authentication) {
+        String username = authentication.getName();
+        return ResponseEntity.ok(waitlistService.getUserEntries(username));
+    }
+
+    @Operation(summary = "Leave waitlist", description = "Stop waiting for a place")
+    @DeleteMapping("/waitlist/{entryId}")
+    public ResponseEntity<String> leaveWaitlist(
+            @PathVariable Long entryId,
+            Authentication authentication
+    ) {
+        String username = authentication.getName();
+        waitlistService.leave(username, entryId);
+        return ResponseEntity.ok("Waitlist entry cancelled successfully");
     }
 
     @Operation(summary = "Get my reservations", description = "Retrieve all reservations for authenticated user")
@@ -45,12 +123,49 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.getUserReservations(username));
     }
 
-    @Operation(summary = "Get available slots", description = "Get available reservation slots for a specific date (public)")
+    @Operation(summary = "Get my upcoming reservations", description = "Reservations from today on, soonest first "
+            + "(default 20, max 100 per page); the X-Next-Cursor response header holds the cursor of the next page")
+    @GetMapping("/upcoming")
+    public ResponseEntity<List<ReservationResponseDto>> getMyUpcomingReservations(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        String username = authentication.getName();
+        return page(reservationService.getUpcomingReservations(username, cursor, limit));
+    }
+
+    @Operation(summary = "Get my past reservations", description = "Reservations before today, most recent first "
+            + "(default 20, max 100 per page); the X-Next-Cursor response header holds the cursor of the next page")
+    @GetMapping("/history")
+    public ResponseEntity<List<ReservationResponseDto>> getMyReservationHistory(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        String username = authentication.getName();
+        return page(reservationService.getReservationHistory(username, cursor, limit));
+    }
+
+    @Operation(summary = "Get available slots", description = "Get available reservation slots for a specific date (public); "
+            + "with guests, only slots that can still seat the party")
     @GetMapping("/slots")
     public ResponseEntity<List<ReservationSlotDto>> getAvailableSlots(
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Integer guests
     ) {
-        return ResponseEntity.ok(slotService.getAvailableSlots(date));
+        return ResponseEntity.ok(slotService.getAvailableSlots(date, guests));
+    }
+
+    @Operation(summary = "Get availability calendar", description = "Remaining capacity per day and slot for a date range "
+            + "of up to 62 days (public); with guests, availability for a party of that size")
+    @GetMapping("/calendar")
+    public ResponseEntity<List<CalendarDayDto>> getCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer guests
+    ) {
+        return ResponseEntity.ok(calendarService.getCalendar(from, to, guests));
     }
 
     @Operation(summary = "Delete reservation", description = "Delete user's own reservation")
@@ -63,4 +178,12 @@ public class ReservationController {
         reservationService.deleteReservationByUser(id, username);
         return ResponseEntity.ok("Reservation deleted successfully");
     }
+
+    private static ResponseEntity<List<ReservationResponseDto>> page(ReservationPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
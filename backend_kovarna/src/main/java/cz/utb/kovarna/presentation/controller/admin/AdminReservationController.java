@@ -1,6 +1,12 @@
 package cz.utb.kovarna.presentation.controller.admin;
 
 import cz.utb.kovarna.application.service.AdminReservationService;
+import cz.utb.kovarna.application.service.ReservationExportService;
+import cz.utb.kovarna.application.service.ReservationImportService;
+import cz.utb.kovarna.application.dto.BulkImportResultDto;
+import cz.utb.kovarna.application.dto.BulkOperationResultDto;
+import cz.utb.kovarna.application.dto.BulkReservationRowDto;
+import cz.utb.kovarna.application.dto.ReservationPageDto;
 import cz.utb.kovarna.application.dto.ReservationResponseDto;
 import cz.utb.kovarna.application.dto.ReservationUpdateDto;
 import io.swagger.v3.oas.annotations.Operation;
@@ -8,10 +14,15 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -23,12 +34,95 @@ import java.util.List;
 public class AdminReservationController {
 
     private final AdminReservationService adminReservationService;
+    private final ReservationExportService exportService;
+    private final ReservationImportService importService;
 
-    @Operation(summary = "Get all reservations", description = "Admin: Retrieve all reservations in the system")
+    @Operation(summary = "Get reservations", description = "Admin: Retrieve reservations, newest first, filtered by date range, "
+            + "status, slot and username. At most 'limit' rows (default 100, max 500) are returned; "
+            + "the X-Next-Cursor response header holds the cursor of the next page")
     @GetMapping
-    public ResponseEntity<List<ReservationResponseDto>> getAllReservations() {
-        List<ReservationResponseDto> reservations = adminReservationService.getAllReservations();
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<List<ReservationResponseDto>> getAllReservations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long slotId,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        ReservationPageDto page = adminReservationService.searchReservations(from, to, status, slotId, username,
+                cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    @Operation(summary = "Export reservations", description = "Admin: Download all reservations matching the filters "
+            + "as CSV or NDJSON (format=csv|ndjson), optionally gzip-compressed; rows are streamed")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long slotId,
+            @RequestParam(required = false) String username) {
+        ReservationExportService.Format exportFormat;
+        try {
+            exportFormat = ReservationExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unsupported export format: " + format);
+        }
+
+        String fileName = "reservations." + exportFormat.name().toLowerCase() + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : exportFormat == ReservationExportService.Format.CSV ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson");
+
+        StreamingResponseBody body = out ->
+                exportService.export(from, to, status, slotId, username, exportFormat, gzip, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(contentType)
+                .body(body);
+    }
+
+    @Operation(summary = "Import reservations", description = "Admin: Create up to 10 000 reservations at once. "
+            + "Valid rows are imported, the others are reported with their index and the reason")
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkImportResultDto> importReservations(@RequestBody List<BulkReservationRowDto> rows) {
+        return ResponseEntity.ok(importService.importReservations(rows));
+    }
+
+    @Operation(summary = "Cancel reservations", description = "Admin: Cancel every active reservation of a date, "
+            + "or of one slot on it, at once; returns the cancelled reservation ids")
+    @PostMapping("/bulk/cancel")
+    public ResponseEntity<BulkOperationResultDto> cancelAll(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long slotId) {
+        return ResponseEntity.ok(adminReservationService.cancelAll(date, slotId));
+    }
+
+    @Operation(summary = "Close a date", description = "Admin: Close a date (or one slot on it) for bookings and "
+            + "cancel its reservations and waitlist at once; returns the cancelled reservation ids")
+    @PostMapping("/bulk/close")
+    public ResponseEntity<BulkOperationResultDto> closeDate(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long slotId,
+            @RequestParam(required = false) String reason) {
+        return ResponseEntity.ok(adminReservationService.closeDate(date, slotId, reason));
+    }
+
+    @Operation(summary = "Move reservations", description = "Admin: Move every active reservation of a slot on a date "
+            + "to another slot, all or nothing; returns the moved reservation ids")
+    @PostMapping("/bulk/move")
+    public ResponseEntity<BulkOperationResultDto> moveAll(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam Long fromSlotId,
+            @RequestParam Long toSlotId) {
+        return ResponseEntity.ok(adminReservationService.moveAll(date, fromSlotId, toSlotId));
     }
 
     @Operation(summary = "Get reservation by ID", description = "Admin: Retrieve specific reservation")
@@ -0,0 +1,48 @@
+package cz.utb.kovarna.presentation.controller.admin;
+
+import cz.utb.kovarna.application.dto.DiningTableDto;
+import cz.utb.kovarna.application.service.DiningTableService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/tables")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin - Tables", description = "Admin endpoints for managing physical tables")
+@SecurityRequirement(name = "Bearer Authentication")
+public class DiningTableController {
+
+    private final DiningTableService tableService;
+
+    @GetMapping
+    public ResponseEntity<List<DiningTableDto>> getAllTables() {
+        return ResponseEntity.ok(tableService.getAllTables());
+    }
+
+    @PostMapping
+    public ResponseEntity<DiningTableDto> createTable(@Valid @RequestBody DiningTableDto dto) {
+        return ResponseEntity.ok(tableService.createTable(dto));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<DiningTableDto> updateTable(
+            @PathVariable Long id,
+            @Valid @RequestBody DiningTableDto dto
+    ) {
+        return ResponseEntity.ok(tableService.updateTable(id, dto));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteTable(@PathVariable Long id) {
+        tableService.deleteTable(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,14 +1,18 @@
 package cz.utb.kovarna.presentation.controller.admin;
 
 import cz.utb.kovarna.application.dto.ReservationSlotDto;
+import cz.utb.kovarna.application.dto.SlotGenerationResultDto;
 import cz.utb.kovarna.application.service.ReservationSlotService;
+import cz.utb.kovarna.application.service.SlotDateGenerator;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,6 +24,7 @@ import java.util.List;
 public class ReservationSlotController {
 
     private final ReservationSlotService slotService;
+    private final SlotDateGenerator slotDateGenerator;
 
     @GetMapping
     public ResponseEntity<List<ReservationSlotDto>> getAllSlots() {
@@ -39,6 +44,18 @@ public class ReservationSlotController {
         return ResponseEntity.ok(slotService.updateSlot(id, dto));
     }
 
+    /**
+     * Generates the dated slots of the given weeks (e.g. a whole season) from the slot templates
+     * and opening hours. Safe to repeat; only dates whose offer changed are written.
+     */
+    @PostMapping("/generate")
+    public ResponseEntity<SlotGenerationResultDto> generateDatedSlots(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "12") int weeks
+    ) {
+        return ResponseEntity.ok(slotDateGenerator.generate(from, weeks));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteSlot(@PathVariable Long id) {
         slotService.deleteSlot(id);
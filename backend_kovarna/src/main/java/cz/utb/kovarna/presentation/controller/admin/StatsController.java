@@ -0,0 +1,37 @@
+package cz.utb.kovarna.presentation.controller.admin;
+
+import cz.utb.kovarna.application.dto.DailyStatsDto;
+import cz.utb.kovarna.application.service.OccupancyStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/stats")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin - Statistics", description = "Admin endpoints for occupancy and demand statistics")
+@SecurityRequirement(name = "Bearer Authentication")
+public class StatsController {
+
+    private final OccupancyStatsService statsService;
+
+    @Operation(summary = "Get occupancy statistics", description = "Admin: Covers, occupancy %, bookings, "
+            + "cancellations and waitlist joins per day and slot (default: the last 30 days, at most 366 days)")
+    @GetMapping
+    public ResponseEntity<List<DailyStatsDto>> getStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(statsService.getStats(start, end));
+    }
+}
@@ -1,6 +1,8 @@
 package cz.utb.kovarna.presentation.controller.admin;
 
+import cz.utb.kovarna.application.service.UserImportService;
 import cz.utb.kovarna.application.service.UserManagementService;
+import cz.utb.kovarna.application.dto.BulkUserRowDto;
 import cz.utb.kovarna.application.dto.UserResponseDto;
 import cz.utb.kovarna.application.dto.UserUpdateDto;
 import io.swagger.v3.oas.annotations.Operation;
@@ -8,9 +10,11 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -23,6 +27,7 @@ import java.util.List;
 public class UserController {
 
     private final UserManagementService userManagementService;
+    private final UserImportService userImportService;
 
     @Operation(summary = "Get all users", description = "Admin: Retrieve all users in the system")
     @GetMapping
@@ -46,4 +51,27 @@ public class UserController {
         UserResponseDto updated = userManagementService.updateUser(id, updateDto);
         return ResponseEntity.ok(updated);
     }
+
+    @Operation(summary = "Import users", description = "Admin: Create up to 10 000 customer accounts at once "
+            + "from a JSON array; the result of every row is streamed back as NDJSON")
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE, produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> importUsers(@RequestBody List<BulkUserRowDto> rows) {
+        return streamImport(rows);
+    }
+
+    @Operation(summary = "Import users from CSV", description = "Admin: Same as the JSON import, for CSV "
+            + "with a username,email,password header line")
+    @PostMapping(value = "/bulk", consumes = "text/csv", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> importUsersCsv(@RequestBody String csv) {
+        return streamImport(userImportService.parseCsv(csv));
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamImport(List<BulkUserRowDto> rows) {
+        // Reject a bad request before the streamed 200 response starts
+        userImportService.checkRowCount(rows);
+        StreamingResponseBody body = out -> userImportService.importUsers(rows, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
 }
@@ -0,0 +1,5 @@
+-- One active reservation per user and day, enforced by the database instead of a pre-check.
+-- Cancelled reservations do not block a new booking on the same day.
+CREATE UNIQUE INDEX ux_reservations_user_date_active
+    ON reservations(user_id, reservation_date)
+    WHERE status <> 'CANCELLED';
@@ -0,0 +1,21 @@
+-- Capacity is expressed in seats (guests), not only in number of reservations.
+-- Admins already entered max_reservations as "max capacity (people)", so it seeds the seat capacity.
+ALTER TABLE reservation_slots ADD COLUMN max_seats INT;
+UPDATE reservation_slots SET max_seats = max_reservations;
+ALTER TABLE reservation_slots
+    ALTER COLUMN max_seats SET NOT NULL,
+    ALTER COLUMN max_seats SET DEFAULT 10;
+
+ALTER TABLE slot_date_capacity
+    ADD COLUMN booked_seats INT NOT NULL DEFAULT 0,
+    ADD CONSTRAINT chk_slot_date_capacity_seats_non_negative CHECK (booked_seats >= 0);
+
+UPDATE slot_date_capacity c
+SET booked_seats = agg.seats
+FROM (
+    SELECT slot_id, reservation_date, SUM(guest_count) AS seats
+    FROM reservations
+    WHERE status <> 'CANCELLED'
+    GROUP BY slot_id, reservation_date
+) agg
+WHERE agg.slot_id = c.slot_id AND agg.reservation_date = c.reservation_date;
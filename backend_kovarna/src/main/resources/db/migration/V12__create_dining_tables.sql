@@ -0,0 +1,13 @@
+-- Physical tables that parties are seated at
+CREATE TABLE dining_tables (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE,
+    seats INT NOT NULL,
+    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    CONSTRAINT chk_dining_tables_seats CHECK (seats > 0)
+);
+
+-- Table a reservation is currently placed at (NULL when no tables are configured)
+ALTER TABLE reservations ADD COLUMN table_id BIGINT;
+ALTER TABLE reservations
+    ADD CONSTRAINT fk_reservations_table FOREIGN KEY (table_id) REFERENCES dining_tables(id) ON DELETE SET NULL;
@@ -0,0 +1,17 @@
+-- Short-lived capacity holds taken while a customer fills in the reservation form.
+-- A hold occupies one reservation and its seats in slot_date_capacity until it is
+-- confirmed (turned into a reservation) or expires.
+CREATE TABLE reservation_holds (
+    id UUID PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    slot_id BIGINT NOT NULL,
+    reservation_date DATE NOT NULL,
+    guest_count INT NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_reservation_holds_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_reservation_holds_slot FOREIGN KEY (slot_id) REFERENCES reservation_slots(id) ON DELETE CASCADE,
+    CONSTRAINT chk_reservation_holds_guests CHECK (guest_count > 0)
+);
+
+-- One open hold per user; a new hold replaces the previous one
+CREATE UNIQUE INDEX ux_reservation_holds_user ON reservation_holds(user_id);
@@ -0,0 +1,23 @@
+-- Customers waiting for a place in a full slot on a given date.
+-- Entries are promoted into reservations in arrival order when capacity is freed.
+CREATE TABLE waitlist_entries (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    slot_id BIGINT NOT NULL,
+    reservation_date DATE NOT NULL,
+    guest_count INT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'WAITING',
+    reservation_id BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_waitlist_entries_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_waitlist_entries_slot FOREIGN KEY (slot_id) REFERENCES reservation_slots(id) ON DELETE CASCADE,
+    CONSTRAINT chk_waitlist_entries_guests CHECK (guest_count > 0)
+);
+
+-- A user waits at most once for the same slot and date
+CREATE UNIQUE INDEX ux_waitlist_entries_user_slot_date ON waitlist_entries(user_id, slot_id, reservation_date)
+    WHERE status = 'WAITING';
+
+-- Queue order per (slot, date)
+CREATE INDEX idx_waitlist_entries_queue ON waitlist_entries(slot_id, reservation_date, created_at, id)
+    WHERE status = 'WAITING';
@@ -0,0 +1,14 @@
+-- Responses of requests sent with an Idempotency-Key header, per user.
+-- A row is claimed as IN_PROGRESS before the request runs, so concurrent duplicates
+-- are detected by the primary key; rows are purged after the retention period.
+CREATE TABLE idempotency_keys (
+    username VARCHAR(50) NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (username, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys(created_at);
@@ -0,0 +1,2 @@
+-- Keyset pagination of the admin reservation listing (ORDER BY reservation_date DESC, id DESC)
+CREATE INDEX idx_reservations_date_id ON reservations(reservation_date, id);
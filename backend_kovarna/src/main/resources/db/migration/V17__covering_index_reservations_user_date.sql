@@ -0,0 +1,4 @@
+-- "My reservations" (upcoming / history) is answered from this index alone:
+-- keyed by user and date, carrying the remaining columns of the projection
+CREATE INDEX idx_reservations_user_date ON reservations(user_id, reservation_date, id)
+    INCLUDE (slot_id, guest_count, status);
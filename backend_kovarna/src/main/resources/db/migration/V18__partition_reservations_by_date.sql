@@ -0,0 +1,90 @@
+-- Range-partition reservations by month of reservation_date so that date-bounded queries
+-- only touch the relevant partitions, and old months can be moved out of the live table.
+-- Partitioned tables require the partition key in the primary key: (id, reservation_date).
+-- Ids keep coming from the existing reservations_id_seq.
+
+ALTER TABLE reservations RENAME TO reservations_legacy;
+ALTER TABLE reservations_legacy RENAME CONSTRAINT reservations_pkey TO reservations_legacy_pkey;
+ALTER SEQUENCE reservations_id_seq OWNED BY NONE;
+DROP INDEX ux_reservations_user_date_active;
+DROP INDEX idx_reservations_date_id;
+DROP INDEX idx_reservations_user_date;
+
+CREATE TABLE reservations (
+    id BIGINT NOT NULL DEFAULT nextval('reservations_id_seq'),
+    user_id BIGINT NOT NULL,
+    slot_id BIGINT NOT NULL,
+    reservation_date DATE NOT NULL,
+    guest_count INT NOT NULL CHECK (guest_count > 0),
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    table_id BIGINT,
+    PRIMARY KEY (id, reservation_date),
+    CONSTRAINT fk_user FOREIGN KEY (user_id) REFERENCES users(id),
+    CONSTRAINT fk_slot FOREIGN KEY (slot_id) REFERENCES reservation_slots(id),
+    CONSTRAINT fk_reservations_table FOREIGN KEY (table_id) REFERENCES dining_tables(id) ON DELETE SET NULL
+) PARTITION BY RANGE (reservation_date);
+
+ALTER SEQUENCE reservations_id_seq OWNED BY reservations.id;
+
+-- Catches rows outside every monthly partition; normally stays empty
+CREATE TABLE reservations_default PARTITION OF reservations DEFAULT;
+
+-- Archived months, attached here when detached from reservations (no data is copied)
+CREATE TABLE reservations_archive (LIKE reservations INCLUDING DEFAULTS)
+    PARTITION BY RANGE (reservation_date);
+
+-- Creates the monthly partition reservations_pYYYY_MM containing the given day (idempotent)
+CREATE OR REPLACE FUNCTION create_reservation_partition(month_day DATE) RETURNS VOID AS $$
+DECLARE
+    month_start DATE := date_trunc('month', month_day)::DATE;
+    partition_name TEXT := 'reservations_p' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF reservations FOR VALUES FROM (%L) TO (%L)',
+        partition_name, month_start, (month_start + INTERVAL '1 month')::DATE);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Moves one monthly partition from reservations to reservations_archive (metadata only)
+CREATE OR REPLACE FUNCTION archive_reservation_partition(month_day DATE) RETURNS VOID AS $$
+DECLARE
+    month_start DATE := date_trunc('month', month_day)::DATE;
+    partition_name TEXT := 'reservations_p' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    EXECUTE format('ALTER TABLE reservations DETACH PARTITION %I', partition_name);
+    EXECUTE format(
+        'ALTER TABLE reservations_archive ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+        partition_name, month_start, (month_start + INTERVAL '1 month')::DATE);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for every month that has data, up to a year ahead
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month', LEAST(
+        COALESCE((SELECT MIN(reservation_date) FROM reservations_legacy), CURRENT_DATE), CURRENT_DATE))::DATE;
+    last_month DATE := date_trunc('month', GREATEST(
+        COALESCE((SELECT MAX(reservation_date) FROM reservations_legacy), CURRENT_DATE),
+        CURRENT_DATE + INTERVAL '12 months'))::DATE;
+    m DATE := first_month;
+BEGIN
+    WHILE m <= last_month LOOP
+        PERFORM create_reservation_partition(m);
+        m := (m + INTERVAL '1 month')::DATE;
+    END LOOP;
+END $$;
+
+INSERT INTO reservations (id, user_id, slot_id, reservation_date, guest_count, status, table_id)
+SELECT id, user_id, slot_id, reservation_date, guest_count, status, table_id FROM reservations_legacy;
+
+DROP TABLE reservations_legacy;
+
+-- Indexes from V10, V16 and V17, now created on every partition
+CREATE UNIQUE INDEX ux_reservations_user_date_active
+    ON reservations(user_id, reservation_date)
+    WHERE status <> 'CANCELLED';
+CREATE INDEX idx_reservations_date_id ON reservations(reservation_date, id);
+CREATE INDEX idx_reservations_user_date ON reservations(user_id, reservation_date, id)
+    INCLUDE (slot_id, guest_count, status);
+-- Lookups by id alone (findById) cannot be pruned and probe this index in each partition
+CREATE INDEX idx_reservations_id ON reservations(id);
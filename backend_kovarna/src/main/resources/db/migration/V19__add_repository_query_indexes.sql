@@ -0,0 +1,21 @@
+-- Indexes for the repository queries not covered so far.
+-- users.username / users.email are already backed by their UNIQUE constraints (V1);
+-- ReservationRepository.existsByUserAndReservationDate and findByUser use idx_reservations_user_date (V18).
+
+-- findByReservationDateAndSlot, and the foreign key check when a slot is deleted
+CREATE INDEX idx_reservations_slot_date ON reservations(slot_id, reservation_date);
+
+-- Foreign key check when a table is deleted (ON DELETE SET NULL); most reservations have no table
+CREATE INDEX idx_reservations_table ON reservations(table_id) WHERE table_id IS NOT NULL;
+
+-- ReservationSlotRepository.existsBySlotFromAndSlotTo
+CREATE INDEX idx_reservation_slots_time ON reservation_slots(slot_from, slot_to);
+
+-- SlotCapacityRepository.findByIdReservationDate / Between / In (the primary key leads with slot_id)
+CREATE INDEX idx_slot_date_capacity_date ON slot_date_capacity(reservation_date);
+
+-- WaitlistEntryRepository.findByUserOrderByCreatedAtDesc
+CREATE INDEX idx_waitlist_entries_user ON waitlist_entries(user_id, created_at);
+
+-- Holds of a deleted slot (ON DELETE CASCADE)
+CREATE INDEX idx_reservation_holds_slot ON reservation_holds(slot_id);
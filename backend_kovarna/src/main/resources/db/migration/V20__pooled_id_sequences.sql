@@ -0,0 +1,11 @@
+-- Entities allocate ids from these sequences in blocks of 50 (pooled-lo optimizer) instead of
+-- IDENTITY, which lets Hibernate batch inserts. Each nextval reserves a whole block, so rows
+-- inserted by SQL defaults (e.g. the booking statement) never collide with ids handed out in memory.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE roles_id_seq INCREMENT BY 50;
+ALTER SEQUENCE reservation_slots_id_seq INCREMENT BY 50;
+ALTER SEQUENCE reservations_id_seq INCREMENT BY 50;
+ALTER SEQUENCE opening_hours_id_seq INCREMENT BY 50;
+ALTER SEQUENCE events_id_seq INCREMENT BY 50;
+ALTER SEQUENCE dining_tables_id_seq INCREMENT BY 50;
+ALTER SEQUENCE waitlist_entries_id_seq INCREMENT BY 50;
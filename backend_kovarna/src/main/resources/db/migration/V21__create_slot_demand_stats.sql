@@ -0,0 +1,35 @@
+-- Demand rollup per (date, slot), maintained incrementally by the reservation write paths.
+-- Current occupancy is already rolled up in slot_date_capacity; this table adds what the ledger
+-- forgets: every booking made (including later cancellations), cancellations and waitlist joins.
+-- Daily totals are summed from these rows on read, so a busy day has no single hot row.
+CREATE TABLE slot_demand_stats (
+    reservation_date DATE NOT NULL,
+    slot_id BIGINT NOT NULL,
+    bookings INT NOT NULL DEFAULT 0,
+    booked_covers INT NOT NULL DEFAULT 0,
+    cancellations INT NOT NULL DEFAULT 0,
+    cancelled_covers INT NOT NULL DEFAULT 0,
+    waitlisted INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (reservation_date, slot_id),
+    CONSTRAINT fk_slot_demand_stats_slot FOREIGN KEY (slot_id) REFERENCES reservation_slots(id) ON DELETE CASCADE
+);
+
+-- Backfill from the reservations still on record (deleted reservations are not known)
+INSERT INTO slot_demand_stats (reservation_date, slot_id, bookings, booked_covers, cancellations, cancelled_covers)
+SELECT reservation_date, slot_id, COUNT(*), SUM(guest_count),
+       COUNT(*) FILTER (WHERE status = 'CANCELLED'),
+       COALESCE(SUM(guest_count) FILTER (WHERE status = 'CANCELLED'), 0)
+FROM (
+    SELECT reservation_date, slot_id, guest_count, status FROM reservations
+    UNION ALL
+    SELECT reservation_date, slot_id, guest_count, status FROM reservations_archive
+) r
+-- Archived months may still reference slots deleted since
+WHERE EXISTS (SELECT 1 FROM reservation_slots s WHERE s.id = r.slot_id)
+GROUP BY reservation_date, slot_id;
+
+INSERT INTO slot_demand_stats (reservation_date, slot_id, waitlisted)
+SELECT reservation_date, slot_id, COUNT(*)
+FROM waitlist_entries
+GROUP BY reservation_date, slot_id
+ON CONFLICT (reservation_date, slot_id) DO UPDATE SET waitlisted = EXCLUDED.waitlisted;
@@ -0,0 +1,70 @@
+-- Recurring slot templates materialized into dated slots.
+--
+-- reservation_slots rows become weekday templates: a slot applies to the weekdays in its
+-- bitmask (bit 0 = Monday ... bit 6 = Sunday). A dated slot is the slot's ledger row in
+-- slot_date_capacity: only (slot, date) pairs with an offered row can be booked.
+-- materialize_slot_dates generates those rows from the templates and opening hours.
+
+ALTER TABLE reservation_slots ADD COLUMN weekdays SMALLINT NOT NULL DEFAULT 127;
+ALTER TABLE reservation_slots
+    ADD CONSTRAINT chk_reservation_slots_weekdays CHECK (weekdays BETWEEN 1 AND 127);
+
+-- The per-slot date of V8 was never used; dated slots live in slot_date_capacity
+DROP INDEX IF EXISTS idx_reservation_slots_date;
+ALTER TABLE reservation_slots DROP COLUMN reservation_date;
+
+-- Rows created for bookings outside the generated calendar (imports, drift fixes) are not offered
+ALTER TABLE slot_date_capacity ADD COLUMN offered BOOLEAN NOT NULL DEFAULT false;
+UPDATE slot_date_capacity SET offered = true WHERE reservation_date >= CURRENT_DATE;
+
+-- (slot, date) pairs the templates offer in the range: active slot, weekday in its mask,
+-- restaurant open that day and the slot within the opening hours
+CREATE OR REPLACE FUNCTION offered_slot_dates(from_date DATE, to_date DATE)
+RETURNS TABLE (slot_id BIGINT, slot_date DATE) AS $$
+    SELECT s.id, d::DATE
+    FROM generate_series(from_date, to_date, INTERVAL '1 day') d
+    JOIN opening_hours oh ON oh.day_of_week = to_char(d, 'FMDAY') AND oh.is_open
+    JOIN reservation_slots s ON s.is_active
+        AND s.slot_from >= oh.open_time AND s.slot_to <= oh.close_time
+        AND (s.weekdays & (1 << (EXTRACT(ISODOW FROM d)::INT - 1))) <> 0
+$$ LANGUAGE sql STABLE;
+
+-- Brings the dated slots of the range in line with the templates (idempotent).
+-- Only rows that differ are written: missing ones are inserted, unbooked ones that are no longer
+-- offered are deleted and booked ones are kept but closed for new bookings.
+-- Returns the number of rows changed.
+CREATE OR REPLACE FUNCTION materialize_slot_dates(from_date DATE, to_date DATE) RETURNS INT AS $$
+DECLARE
+    changed INT := 0;
+    affected INT;
+BEGIN
+    INSERT INTO slot_date_capacity (slot_id, reservation_date, current_reservations, booked_seats, offered)
+    SELECT o.slot_id, o.slot_date, 0, 0, true FROM offered_slot_dates(from_date, to_date) o
+    ON CONFLICT (slot_id, reservation_date) DO UPDATE SET offered = true
+    WHERE NOT slot_date_capacity.offered;
+    GET DIAGNOSTICS affected = ROW_COUNT;
+    changed := changed + affected;
+
+    DELETE FROM slot_date_capacity c
+    WHERE c.reservation_date BETWEEN from_date AND to_date
+      AND c.current_reservations = 0 AND c.booked_seats = 0
+      AND NOT EXISTS (
+          SELECT 1 FROM offered_slot_dates(from_date, to_date) o
+          WHERE o.slot_id = c.slot_id AND o.slot_date = c.reservation_date
+      );
+    GET DIAGNOSTICS affected = ROW_COUNT;
+    changed := changed + affected;
+
+    UPDATE slot_date_capacity c SET offered = false
+    WHERE c.reservation_date BETWEEN from_date AND to_date AND c.offered
+      AND NOT EXISTS (
+          SELECT 1 FROM offered_slot_dates(from_date, to_date) o
+          WHERE o.slot_id = c.slot_id AND o.slot_date = c.reservation_date
+      );
+    GET DIAGNOSTICS affected = ROW_COUNT;
+    RETURN changed + affected;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Twelve weeks of dated slots so bookings keep working right after the upgrade
+SELECT materialize_slot_dates(CURRENT_DATE, CURRENT_DATE + 83);
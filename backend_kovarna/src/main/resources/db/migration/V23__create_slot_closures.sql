@@ -0,0 +1,26 @@
+-- Dates (or single slots on a date) closed by an admin, e.g. an unexpected closure of the pub.
+-- A closed (slot, date) is never offered again by materialize_slot_dates.
+CREATE TABLE slot_closures (
+    id BIGSERIAL PRIMARY KEY,
+    closure_date DATE NOT NULL,
+    slot_id BIGINT, -- NULL closes every slot of the date
+    reason VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_slot_closures_slot FOREIGN KEY (slot_id) REFERENCES reservation_slots(id) ON DELETE CASCADE
+);
+
+CREATE UNIQUE INDEX ux_slot_closures_date_slot ON slot_closures(closure_date, COALESCE(slot_id, 0));
+
+CREATE OR REPLACE FUNCTION offered_slot_dates(from_date DATE, to_date DATE)
+RETURNS TABLE (slot_id BIGINT, slot_date DATE) AS $$
+    SELECT s.id, d::DATE
+    FROM generate_series(from_date, to_date, INTERVAL '1 day') d
+    JOIN opening_hours oh ON oh.day_of_week = to_char(d, 'FMDAY') AND oh.is_open
+    JOIN reservation_slots s ON s.is_active
+        AND s.slot_from >= oh.open_time AND s.slot_to <= oh.close_time
+        AND (s.weekdays & (1 << (EXTRACT(ISODOW FROM d)::INT - 1))) <> 0
+    WHERE NOT EXISTS (
+        SELECT 1 FROM slot_closures sc
+        WHERE sc.closure_date = d::DATE AND (sc.slot_id IS NULL OR sc.slot_id = s.id)
+    )
+$$ LANGUAGE sql STABLE;
@@ -0,0 +1,6 @@
+-- Tokens carry the user's id, roles and enabled flag and are not checked against the users table.
+-- When an admin changes any of those, tokens issued at or before this epoch second are rejected.
+-- Every instance loads the recent values at startup and refreshes them periodically.
+ALTER TABLE users ADD COLUMN tokens_valid_after BIGINT;
+
+CREATE INDEX idx_users_tokens_valid_after ON users(tokens_valid_after) WHERE tokens_valid_after IS NOT NULL;
@@ -0,0 +1,5 @@
+-- When the current IN_PROGRESS claim was taken. A claim older than the claim timeout belongs
+-- to a request that crashed or never completed, and may be taken over by a retry.
+ALTER TABLE idempotency_keys ADD COLUMN claimed_at TIMESTAMP;
+UPDATE idempotency_keys SET claimed_at = created_at;
+ALTER TABLE idempotency_keys ALTER COLUMN claimed_at SET NOT NULL;
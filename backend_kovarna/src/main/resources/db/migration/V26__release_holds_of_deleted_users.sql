@@ -0,0 +1,22 @@
+-- Holds are removed with their user (ON DELETE CASCADE), but a cascade does not give their place
+-- back to slot_date_capacity. Release the ledger for the user's holds before the user row goes.
+-- Holds of a deleted slot need nothing: its ledger rows are cascade-deleted as well.
+CREATE OR REPLACE FUNCTION release_holds_of_deleted_user() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE slot_date_capacity c
+    SET current_reservations = GREATEST(c.current_reservations - h.holds, 0),
+        booked_seats = GREATEST(c.booked_seats - h.seats, 0)
+    FROM (
+        SELECT slot_id, reservation_date, COUNT(*) AS holds, SUM(guest_count) AS seats
+        FROM reservation_holds
+        WHERE user_id = OLD.id
+        GROUP BY slot_id, reservation_date
+    ) h
+    WHERE c.slot_id = h.slot_id AND c.reservation_date = h.reservation_date;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_users_release_holds
+    BEFORE DELETE ON users
+    FOR EACH ROW EXECUTE FUNCTION release_holds_of_deleted_user();
@@ -0,0 +1,34 @@
+-- CREATE TABLE ... PARTITION OF fails when the DEFAULT partition already holds rows of that
+-- month (e.g. bookings or an import made before the month had its partition). Such a month is
+-- now built as a standalone table, the rows are moved out of the default partition into it,
+-- and the table is attached; everything happens in the caller's transaction.
+CREATE OR REPLACE FUNCTION create_reservation_partition(month_day DATE) RETURNS VOID AS $$
+DECLARE
+    month_start DATE := date_trunc('month', month_day)::DATE;
+    month_end DATE := (date_trunc('month', month_day) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := 'reservations_p' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+
+    IF NOT EXISTS (
+        SELECT 1 FROM reservations_default
+        WHERE reservation_date >= month_start AND reservation_date < month_end
+    ) THEN
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF reservations FOR VALUES FROM (%L) TO (%L)',
+            partition_name, month_start, month_end);
+        RETURN;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE reservations INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+    EXECUTE format(
+        'WITH moved AS (DELETE FROM reservations_default WHERE reservation_date >= %L AND reservation_date < %L RETURNING *) '
+            || 'INSERT INTO %I SELECT * FROM moved',
+        month_start, month_end, partition_name);
+    EXECUTE format(
+        'ALTER TABLE reservations ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+        partition_name, month_start, month_end);
+END;
+$$ LANGUAGE plpgsql;
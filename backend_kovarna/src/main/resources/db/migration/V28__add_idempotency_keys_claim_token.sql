@@ -0,0 +1,4 @@
+-- Random token of the request that holds the current IN_PROGRESS claim. The holder refreshes
+-- claimed_at while it runs and completes or abandons the claim only while the token is still
+-- its own, so a request whose claim was taken over cannot overwrite or delete the new one.
+ALTER TABLE idempotency_keys ADD COLUMN claim_token VARCHAR(36);
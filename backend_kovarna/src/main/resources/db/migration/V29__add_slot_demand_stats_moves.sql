@@ -0,0 +1,8 @@
+-- Reservations an admin moved out of or into the slot on the date (bulk slot move). Kept apart
+-- from bookings, so a move neither counts as new demand in the target slot nor takes demand back
+-- from the source slot.
+ALTER TABLE slot_demand_stats
+    ADD COLUMN moved_out INT NOT NULL DEFAULT 0,
+    ADD COLUMN moved_out_covers INT NOT NULL DEFAULT 0,
+    ADD COLUMN moved_in INT NOT NULL DEFAULT 0,
+    ADD COLUMN moved_in_covers INT NOT NULL DEFAULT 0;
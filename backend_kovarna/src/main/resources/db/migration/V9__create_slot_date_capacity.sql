@@ -0,0 +1,20 @@
+-- Per-date capacity ledger: one row per (slot, date) that has at least one booking.
+-- Replaces the global reservation_slots.current_reservations counter, which was shared by all dates.
+CREATE TABLE slot_date_capacity (
+    slot_id BIGINT NOT NULL,
+    reservation_date DATE NOT NULL,
+    current_reservations INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (slot_id, reservation_date),
+    CONSTRAINT fk_slot_date_capacity_slot FOREIGN KEY (slot_id) REFERENCES reservation_slots(id) ON DELETE CASCADE,
+    CONSTRAINT chk_slot_date_capacity_non_negative CHECK (current_reservations >= 0)
+);
+
+-- Backfill the ledger from existing reservations (cancelled ones do not hold a place)
+INSERT INTO slot_date_capacity (slot_id, reservation_date, current_reservations)
+SELECT slot_id, reservation_date, COUNT(*)
+FROM reservations
+WHERE status <> 'CANCELLED'
+GROUP BY slot_id, reservation_date;
+
+-- The global counter is no longer maintained
+ALTER TABLE reservation_slots DROP COLUMN current_reservations;
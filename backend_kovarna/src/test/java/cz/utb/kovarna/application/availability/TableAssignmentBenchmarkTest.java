@@ -0,0 +1,198 @@
+package cz.utb.kovarna.application.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency benchmark of the table assignment engine for a full Saturday night:
+ * 30 tables (150 seats), six seatings, parties of 1-10 guests arriving until the
+ * room is full, with availability queries between bookings as GET /slots would do.
+ * Runs without a database; seat utilisation, re-pack moves and latency percentiles are asserted.
+ */
+class TableAssignmentBenchmarkTest {
+
+    private static final int SLOTS = 6;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final double MIN_SEAT_UTILISATION = 0.75;
+    // Generous so that slow CI machines pass; typical values are a few microseconds
+    private static final long MAX_P99_NANOS = 2_000_000;
+    private static final int[] TABLE_SEATS = {
+            2, 2, 2, 2, 2, 2, 2, 2,
+            4, 4, 4, 4, 4, 4, 4, 4, 4, 4,
+            6, 6, 6, 6, 6, 6,
+            8, 8, 8, 8,
+            10, 12
+    };
+
+    /**
+     * Outcome of one simulated night.
+     */
+    private record Night(int placed, int rejected, int moved, int seatedGuests, long[] placeNanos, long[] queryNanos) {
+    }
+
+    @Test
+    void fullSaturdayNight() {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runSaturday(new Random(i));
+        }
+        Night night = runSaturday(new Random(42));
+
+        int capacity = Arrays.stream(TABLE_SEATS).sum() * SLOTS;
+        assertTrue(night.seatedGuests() >= capacity * MIN_SEAT_UTILISATION,
+                "only " + night.seatedGuests() + " of " + capacity + " seats used");
+        assertTrue(night.rejected() >= SLOTS * 20, "every seating ends with a run of rejections");
+        assertTrue(night.moved() <= night.placed(), "re-packs move at most one party per booking on average");
+        assertTrue(percentile(night.placeNanos(), 0.99) < MAX_P99_NANOS,
+                "place p99 " + percentile(night.placeNanos(), 0.99) + " ns");
+        assertTrue(percentile(night.queryNanos(), 0.99) < MAX_P99_NANOS,
+                "availability p99 " + percentile(night.queryNanos(), 0.99) + " ns");
+    }
+
+    @Test
+    void heldTablesAreNotHandedOutTwiceAndRollbackFreesThem() {
+        TablePlan plan = new TablePlan(TableLayout.of(new long[]{1, 2}, new int[]{4, 6}));
+
+        TablePlan.Change first = plan.place(1, 4);
+        TablePlan.Change second = plan.place(2, 4);
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNotEquals(first.placements().get(0).tableId(), second.placements().get(0).tableId());
+        assertFalse(plan.canSeat(2), "both tables are held by uncommitted bookings");
+
+        plan.rollback(second);
+        assertEquals(6, plan.largestFreeTable());
+        plan.commit(first);
+        assertEquals(1, plan.partyCount());
+        assertTrue(plan.canSeat(6));
+    }
+
+    @Test
+    void fullTableIsFreedByMovingOneParty() {
+        TablePlan plan = new TablePlan(TableLayout.of(new long[]{1, 2, 3}, new int[]{2, 6, 8}));
+        plan.commit(plan.place(1, 2));   // the 2-top
+        plan.commit(plan.place(2, 6));   // the 6-top
+        plan.commit(plan.place(3, 3));   // only the 8-top is left
+
+        TablePlan.Change change = plan.place(4, 7);
+        assertNull(change, "a party of 7 only fits the occupied 8-top and the party there cannot move");
+
+        plan.remove(2);
+        change = plan.place(4, 7);
+        assertNotNull(change);
+        assertEquals(1, change.moved());
+        assertEquals(List.of(new TablePlan.Placement(4, 3), new TablePlan.Placement(3, 2)), change.placements());
+    }
+
+    private Night runSaturday(Random random) {
+        TableLayout layout = layout();
+        long[] placeNanos = new long[4096];
+        long[] queryNanos = new long[4096];
+        int placed = 0;
+        int queries = 0;
+        int rejected = 0;
+        int moved = 0;
+        int seatedGuests = 0;
+        long reservationId = 1;
+
+        for (int slot = 0; slot < SLOTS; slot++) {
+            TablePlan plan = new TablePlan(layout);
+            Map<Long, Integer> guestsByReservation = new HashMap<>();
+            Map<Long, Long> tableByReservation = new HashMap<>();
+
+            int consecutiveRejections = 0;
+            while (consecutiveRejections < 20) {
+                int guests = partySize(random);
+
+                long start = System.nanoTime();
+                boolean available = plan.canSeat(guests);
+                int largest = plan.largestFreeTable();
+                queryNanos[queries++] = System.nanoTime() - start;
+                assertTrue(largest >= 0);
+
+                if (!available) {
+                    rejected++;
+                    consecutiveRejections++;
+                    continue;
+                }
+
+                long id = reservationId++;
+                start = System.nanoTime();
+                TablePlan.Change change = plan.place(id, guests);
+                assertNotNull(change, "canSeat promised a table");
+                plan.commit(change);
+                placeNanos[placed++] = System.nanoTime() - start;
+
+                guestsByReservation.put(id, guests);
+                for (TablePlan.Placement placement : change.placements()) {
+                    tableByReservation.put(placement.reservationId(), placement.tableId());
+                }
+                moved += change.moved();
+                seatedGuests += guests;
+                consecutiveRejections = 0;
+            }
+
+            assertValidPlan(layout, guestsByReservation, tableByReservation);
+            assertEquals(guestsByReservation.size(), plan.partyCount());
+        }
+
+        return new Night(placed, rejected, moved, seatedGuests,
+                Arrays.copyOf(placeNanos, placed), Arrays.copyOf(queryNanos, queries));
+    }
+
+    private static void assertValidPlan(TableLayout layout, Map<Long, Integer> guests, Map<Long, Long> tables) {
+        Set<Long> used = new HashSet<>();
+        Map<Long, Integer> seatsById = new HashMap<>();
+        for (int i = 0; i < layout.size(); i++) {
+            seatsById.put(layout.tableId(i), layout.seats(i));
+        }
+        tables.forEach((reservation, table) -> {
+            assertTrue(used.add(table), "table " + table + " is double-booked");
+            assertTrue(seatsById.get(table) >= guests.get(reservation), "party does not fit table " + table);
+        });
+    }
+
+    private static TableLayout layout() {
+        long[] ids = new long[TABLE_SEATS.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+        return TableLayout.of(ids, TABLE_SEATS);
+    }
+
+    /**
+     * Mostly couples and small groups, occasionally a large party.
+     */
+    private static int partySize(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 35) {
+            return 2;
+        }
+        if (roll < 70) {
+            return 3 + random.nextInt(2);
+        }
+        if (roll < 90) {
+            return 5 + random.nextInt(2);
+        }
+        return 7 + random.nextInt(4);
+    }
+
+    private static long percentile(long[] nanos, double quantile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+}
@@ -0,0 +1,366 @@
+package cz.utb.kovarna.infrastructure.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query-plan regression harness for the repository queries.
+ *
+ * Migrates a throwaway PostgreSQL with the Flyway scripts, seeds a synthetic dataset
+ * (20k users, 300k reservations over three years, ledger and waitlist), calls each repository
+ * method and runs EXPLAIN for the statement Hibernate actually sent, with the same parameters.
+ * The build fails when a query sequentially scans a large table, when a date-bounded query is
+ * not pruned to one partition, or when its cost grows past the recorded baseline
+ * (query-plans/baseline.properties). A query without a baseline entry is only reported,
+ * with its measured cost, through the test report.
+ *
+ * After an intentional plan change, re-record the baseline with -Dquery-plans.record=true.
+ * Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=none"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanRegressionTest {
+
+    private static final double COST_TOLERANCE = 1.5;
+    private static final Set<String> LARGE_TABLES = Set.of("users", "slot_date_capacity", "waitlist_entries");
+    private static final Path BASELINE_FILE = Path.of("src/test/resources/query-plans/baseline.properties");
+    private static final boolean RECORD = Boolean.getBoolean("query-plans.record");
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(3);
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private record PlannedQuery(Runnable call, boolean prunedToOnePartition) {
+    }
+
+    @TestConfiguration
+    static class RecordingDataSourceConfig {
+        @Bean
+        StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+
+        @Bean
+        DataSource dataSource(StatementRecorder recorder) {
+            return recorder.wrap(new DriverManagerDataSource(
+                    POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+        }
+    }
+
+    @Autowired
+    private StatementRecorder recorder;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReservationSlotRepository slotRepository;
+    @Autowired
+    private SlotCapacityRepository capacityRepository;
+    @Autowired
+    private WaitlistEntryRepository waitlistRepository;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load()
+                .migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    SELECT create_reservation_partition((date_trunc('month', CURRENT_DATE) + m * INTERVAL '1 month')::DATE)
+                    FROM generate_series(-36, 12) AS m
+                    """);
+            statement.execute("""
+                    INSERT INTO users (username, email, password_hash, enabled)
+                    SELECT 'user' || i, 'user' || i || '@example.com', 'x', TRUE FROM generate_series(1, 20000) AS i
+                    """);
+            statement.execute("""
+                    INSERT INTO reservation_slots (slot_from, slot_to, is_active, max_reservations, max_seats)
+                    SELECT TIME '10:00' + h * INTERVAL '1 hour', TIME '11:00' + h * INTERVAL '1 hour', TRUE, 1000, 5000
+                    FROM generate_series(0, 11) AS h
+                    """);
+            statement.execute("""
+                    INSERT INTO reservations (user_id, slot_id, reservation_date, guest_count, status)
+                    SELECT 1 + i % 20000, 1 + i % 12, CURRENT_DATE - 700 + i % 1060, 1 + i % 8,
+                           CASE WHEN i % 10 = 0 THEN 'CANCELLED' ELSE 'ACTIVE' END
+                    FROM generate_series(1, 300000) AS i
+                    """);
+            statement.execute("""
+                    INSERT INTO slot_date_capacity (slot_id, reservation_date, current_reservations, booked_seats)
+                    SELECT slot_id, reservation_date, COUNT(*), SUM(guest_count) FROM reservations
+                    WHERE status <> 'CANCELLED' GROUP BY slot_id, reservation_date
+                    """);
+            statement.execute("""
+                    INSERT INTO waitlist_entries (user_id, slot_id, reservation_date, guest_count)
+                    SELECT 1 + i % 20000, 1 + i % 12, CURRENT_DATE + i % 60, 2 FROM generate_series(1, 5000) AS i
+                    """);
+            statement.execute("ANALYZE");
+        }
+    }
+
+    private Map<String, PlannedQuery> queries() {
+        Map<String, PlannedQuery> queries = new LinkedHashMap<>();
+        queries.put("reservations.findByReservationDateAndSlot", new PlannedQuery(
+                () -> reservationRepository.findByReservationDateAndSlot(DAY, slotRepository.getReferenceById(3L)), true));
+        queries.put("reservations.existsByUserAndReservationDate", new PlannedQuery(
+                () -> reservationRepository.existsByUserAndReservationDate(userRepository.getReferenceById(42L), DAY), true));
+        queries.put("reservations.findByUser", new PlannedQuery(
+                () -> reservationRepository.findByUser(userRepository.getReferenceById(42L)), false));
+        queries.put("reservations.findTablePlacements", new PlannedQuery(
+                () -> reservationRepository.findTablePlacements(DAY), true));
+        queries.put("reservations.findUpcoming", new PlannedQuery(
+                () -> reservationRepository.findUpcoming("user42", TODAY, null, null, PageRequest.of(0, 21)), false));
+        queries.put("reservations.findHistory", new PlannedQuery(
+                () -> reservationRepository.findHistory("user42", TODAY, null, null, PageRequest.of(0, 21)), false));
+        queries.put("reservations.search", new PlannedQuery(
+                () -> reservationRepository.search(TODAY.withDayOfMonth(1), TODAY.withDayOfMonth(TODAY.lengthOfMonth()),
+                        null, null, null, null, null, PageRequest.of(0, 101)), true));
+        queries.put("users.findByUsername", new PlannedQuery(
+                () -> userRepository.findByUsername("user42"), false));
+        queries.put("users.findByEmail", new PlannedQuery(
+                () -> userRepository.findByEmail("user42@example.com"), false));
+        queries.put("reservationSlots.findBySlotFromAndSlotTo", new PlannedQuery(
+                () -> slotRepository.findBySlotFromAndSlotTo(LocalTime.of(18, 0), LocalTime.of(19, 0)), false));
+        queries.put("slotCapacity.findByIdReservationDate", new PlannedQuery(
+                () -> capacityRepository.findByIdReservationDate(DAY), false));
+        queries.put("slotCapacity.findByIdReservationDateBetween", new PlannedQuery(
+                () -> capacityRepository.findByIdReservationDateBetween(TODAY, TODAY.plusDays(90)), false));
+        queries.put("waitlist.findQueue", new PlannedQuery(
+                () -> waitlistRepository.findQueue(3L, DAY, PageRequest.of(0, 50)), false));
+        queries.put("waitlist.findByUserOrderByCreatedAtDesc", new PlannedQuery(
+                () -> waitlistRepository.findByUserOrderByCreatedAtDesc(userRepository.getReferenceById(42L)), false));
+        return queries;
+    }
+
+    @Test
+    void repositoryQueriesUseIndexesAndStayWithinBaseline(TestReporter reporter) throws Exception {
+        Properties baseline = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/query-plans/baseline.properties")) {
+            if (in != null) {
+                baseline.load(in);
+            }
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Double> costs = new LinkedHashMap<>();
+        List<String> failures = new ArrayList<>();
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("SET max_parallel_workers_per_gather = 0");
+            for (Map.Entry<String, PlannedQuery> query : queries().entrySet()) {
+                String name = query.getKey();
+                JsonNode plan = mapper.readTree(explain(connection, recorder.capture(query.getValue().call())))
+                        .get(0).get("Plan");
+
+                List<JsonNode> scans = new ArrayList<>();
+                collectScans(plan, scans);
+                double cost = plan.get("Total Cost").asDouble();
+                costs.put(name, cost);
+
+                long partitions = scans.stream()
+                        .map(scan -> scan.path("Relation Name").asText())
+                        .filter(relation -> relation.startsWith("reservations_"))
+                        .distinct()
+                        .count();
+                for (JsonNode scan : scans) {
+                    String relation = scan.path("Relation Name").asText();
+                    if ("Seq Scan".equals(scan.get("Node Type").asText())
+                            && (relation.startsWith("reservations_") || LARGE_TABLES.contains(relation))) {
+                        failures.add(name + ": sequential scan on " + relation);
+                    }
+                }
+                if (query.getValue().prunedToOnePartition() && partitions > 1) {
+                    failures.add(name + ": scans " + partitions + " reservation partitions");
+                }
+                if (RECORD) {
+                    continue;
+                }
+                String recorded = baseline.getProperty(name);
+                if (recorded == null) {
+                    reporter.publishEntry(name, "no baseline recorded, cost " + format(cost));
+                } else if (cost > Double.parseDouble(recorded) * COST_TOLERANCE) {
+                    failures.add(name + ": cost " + format(cost) + " exceeds baseline " + recorded);
+                }
+            }
+        }
+
+        if (RECORD) {
+            writeBaseline(costs);
+        }
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    /**
+     * EXPLAIN of a captured statement, with its parameters bound exactly as Hibernate bound them,
+     * so partition pruning sees the real values.
+     */
+    private static String explain(Connection connection, StatementRecorder.Recorded statement) throws SQLException {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+            for (StatementRecorder.Call call : statement.parameters()) {
+                try {
+                    call.method().invoke(explain, call.args());
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new SQLException("Cannot bind " + call.method().getName(), e);
+                }
+            }
+            try (ResultSet rs = explain.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+
+    private static void writeBaseline(Map<String, Double> costs) throws IOException {
+        StringBuilder out = new StringBuilder("""
+                # Total cost of the EXPLAIN plan per query of QueryPlanRegressionTest on its synthetic dataset.
+                # A query whose cost grows past baseline * tolerance fails the build; a query without an entry
+                # is only reported (with its measured cost) in the test report.
+                # Record or re-record after an intentional plan change: mvn test -Dtest=QueryPlanRegressionTest -Dquery-plans.record=true
+                """);
+        costs.forEach((name, cost) -> out.append(name).append('=').append(format(cost)).append('\n'));
+        Files.writeString(BASELINE_FILE, out, StandardCharsets.UTF_8);
+    }
+
+    private static String format(double cost) {
+        return String.format(Locale.ROOT, "%.2f", cost);
+    }
+
+    private static void collectScans(JsonNode node, List<JsonNode> scans) {
+        if (node.has("Relation Name")) {
+            scans.add(node);
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectScans(child, scans);
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    /**
+     * Records the SQL and parameter bindings of the statements prepared through the wrapped data source.
+     */
+    static final class StatementRecorder {
+
+        record Call(Method method, Object[] args) {
+        }
+
+        record Recorded(String sql, List<Call> parameters) {
+        }
+
+        private final List<Recorded> statements = new CopyOnWriteArrayList<>();
+        private volatile boolean recording;
+
+        /**
+         * Runs the repository call and returns the first statement it prepared: the query itself,
+         * before any select of associated entities.
+         */
+        Recorded capture(Runnable call) {
+            statements.clear();
+            recording = true;
+            try {
+                call.run();
+            } finally {
+                recording = false;
+            }
+            assertFalse(statements.isEmpty(), "The repository call prepared no statement");
+            return statements.get(0);
+        }
+
+        DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (method, args, result) ->
+                    result instanceof Connection connection ? wrap(connection) : result);
+        }
+
+        private Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection, (method, args, result) -> {
+                if (recording && result instanceof PreparedStatement statement
+                        && method.getName().equals("prepareStatement") && args[0] instanceof String sql) {
+                    List<Call> parameters = new CopyOnWriteArrayList<>();
+                    statements.add(new Recorded(sql, parameters));
+                    return wrap(statement, parameters);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement wrap(PreparedStatement statement, List<Call> parameters) {
+            return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+                // Parameter setters take the parameter index first; setMaxRows and the like take one argument
+                if (method.getName().startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer) {
+                    parameters.add(new Call(method, args.clone()));
+                }
+                return result;
+            });
+        }
+
+        private interface AfterCall {
+            Object apply(Method method, Object[] args, Object result) throws Throwable;
+        }
+
+        private static <T> T proxy(Class<T> type, T target, AfterCall after) {
+            Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+                if (method.getName().equals("unwrap") && args[0] == type) {
+                    return target;
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                return after.apply(method, args, result);
+            });
+            return type.cast(proxy);
+        }
+    }
+}
@@ -3,7 +3,10 @@ import {
   adminService,
   type ReservationSlotDto,
 } from "../services/adminService";
-import { adminReservationService } from "../services/adminReservationService";
+import {
+  adminReservationService,
+  type ReservationFilters,
+} from "../services/adminReservationService";
 import { adminUserService } from "../services/adminUserService";
 import {
   openingHoursService,
@@ -21,6 +24,11 @@ function Admin() {
   const [activeSection, setActiveSection] = useState<AdminSection>("slots");
   const [slots, setSlots] = useState<ReservationSlotDto[]>([]);
   const [reservations, setReservations] = useState<ReservationResponse[]>([]);
+  const [reservationFilters, setReservationFilters] = useState<ReservationFilters>({});
+  // Filters of the listed pages, so "load more" continues them even while the form is being edited
+  const [listedReservationFilters, setListedReservationFilters] = useState<ReservationFilters>({});
+  const [reservationsCursor, setReservationsCursor] = useState<string | undefined>();
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
   const [users, setUsers] = useState<UserResponse[]>([]);
   const [openingHours, setOpeningHours] = useState<OpeningHoursDto[]>([]);
   const [isLoading, setIsLoading] = useState(true);
@@ -95,6 +103,14 @@ function Admin() {
     };
   }, [isMobileMenuOpen]);
 
+  // First page of reservations for the current filters; further pages are loaded on demand
+  const loadReservations = async () => {
+    const page = await adminReservationService.searchReservations(reservationFilters);
+    setReservations(page.reservations);
+    setListedReservationFilters(reservationFilters);
+    setReservationsCursor(page.nextCursor);
+  };
+
   useEffect(() => {
     // Fetch data based on active section
     const fetchData = async () => {
@@ -107,8 +123,10 @@ function Admin() {
           const data = await adminService.getAllSlots();
           setSlots(data);
         } else if (activeSection === "reservations") {
-          const data = await adminReservationService.getAllReservations();
-          setReservations(data);
+          await loadReservations();
+          if (slots.length === 0) {
+            setSlots(await adminService.getAllSlots());
+          }
         } else if (activeSection === "users") {
           const data = await adminUserService.getAllUsers();
           setUsers(data);
@@ -445,6 +463,37 @@ function Admin() {
       }
     };
 
+    const handleSearchReservations = async (e: React.FormEvent) => {
+      e.preventDefault();
+      setError("");
+      setSuccess("");
+
+      try {
+        setIsLoading(true);
+        await loadReservations();
+      } catch (err: any) {
+        setError(err.message || "Failed to fetch reservations");
+      } finally {
+        setIsLoading(false);
+      }
+    };
+
+    const handleLoadMoreReservations = async () => {
+      try {
+        setIsLoadingMore(true);
+        const page = await adminReservationService.searchReservations(
+          listedReservationFilters,
+          reservationsCursor
+        );
+        setReservations([...reservations, ...page.reservations]);
+        setReservationsCursor(page.nextCursor);
+      } catch (err: any) {
+        setError(err.message || "Failed to fetch reservations");
+      } finally {
+        setIsLoadingMore(false);
+      }
+    };
+
     return (
       <>
         <div className="section-header">
@@ -454,6 +503,80 @@ function Admin() {
         {error && <div className="error-message">{error}</div>}
         {success && <div className="success-message">{success}</div>}
 
+        <form onSubmit={handleSearchReservations} className="reservation-filters">
+          <div className="form-group">
+            <label htmlFor="filterFrom">{t('admin.reservations.from')}</label>
+            <input
+              type="date"
+              id="filterFrom"
+              value={reservationFilters.from || ""}
+              onChange={(e) =>
+                setReservationFilters({ ...reservationFilters, from: e.target.value })
+              }
+            />
+          </div>
+          <div className="form-group">
+            <label htmlFor="filterTo">{t('admin.reservations.to')}</label>
+            <input
+              type="date"
+              id="filterTo"
+              value={reservationFilters.to || ""}
+              onChange={(e) =>
+                setReservationFilters({ ...reservationFilters, to: e.target.value })
+              }
+            />
+          </div>
+          <div className="form-group">
+            <label htmlFor="filterStatus">{t('admin.reservations.status')}</label>
+            <select
+              id="filterStatus"
+              value={reservationFilters.status || ""}
+              onChange={(e) =>
+                setReservationFilters({ ...reservationFilters, status: e.target.value })
+              }
+            >
+              <option value="">{t('admin.reservations.allStatuses')}</option>
+              <option value="ACTIVE">ACTIVE</option>
+              <option value="CANCELLED">CANCELLED</option>
+              <option value="COMPLETED">COMPLETED</option>
+            </select>
+          </div>
+          <div className="form-group">
+            <label htmlFor="filterSlot">{t('admin.reservations.time')}</label>
+            <select
+              id="filterSlot"
+              value={reservationFilters.slotId ?? ""}
+              onChange={(e) =>
+                setReservationFilters({
+                  ...reservationFilters,
+                  slotId: e.target.value ? parseInt(e.target.value) : undefined,
+                })
+              }
+            >
+              <option value="">{t('admin.reservations.allSlots')}</option>
+              {slots.map((slot) => (
+                <option key={slot.id} value={slot.id}>
+                  {slot.slotFrom.substring(0, 5)} - {slot.slotTo.substring(0, 5)}
+                </option>
+              ))}
+            </select>
+          </div>
+          <div className="form-group">
+            <label htmlFor="filterUsername">{t('admin.reservations.username')}</label>
+            <input
+              type="text"
+              id="filterUsername"
+              value={reservationFilters.username || ""}
+              onChange={(e) =>
+                setReservationFilters({ ...reservationFilters, username: e.target.value })
+              }
+            />
+          </div>
+          <button type="submit" className="btn btn-primary">
+            {t('admin.reservations.search')}
+          </button>
+        </form>
+
         <div className="admin-content">
           {reservations.length === 0 ? (
             <p className="no-data">{t('admin.reservations.noData')}</p>
@@ -505,6 +628,17 @@ function Admin() {
               </tbody>
             </table>
           )}
+          {reservationsCursor && (
+            <div className="load-more">
+              <button
+                className="btn btn-secondary"
+                onClick={handleLoadMoreReservations}
+                disabled={isLoadingMore}
+              >
+                {t('admin.reservations.loadMore')}
+              </button>
+            </div>
+          )}
         </div>
       </>
     );
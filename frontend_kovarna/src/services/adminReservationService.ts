@@ -8,13 +8,42 @@ export interface ReservationUpdateDto {
   status?: string; // "ACTIVE", "CANCELLED", etc.
 }
 
+export interface ReservationFilters {
+  from?: string; // LocalDate format "YYYY-MM-DD"
+  to?: string;
+  status?: string;
+  slotId?: number;
+  username?: string;
+}
+
+export interface ReservationPage {
+  reservations: ReservationResponse[];
+  nextCursor?: string; // missing on the last page
+}
+
+const PAGE_SIZE = 100;
+
 export const adminReservationService = {
   /**
-   * Get all reservations in the system (admin only)
+   * Get one page of reservations matching the filters (admin only), newest first.
+   * Pass the nextCursor of the previous page to get the page after it.
    */
-  async getAllReservations(): Promise<ReservationResponse[]> {
-    const response = await api.get<ReservationResponse[]>('/admin/reservations');
-    return response.data;
+  async searchReservations(filters: ReservationFilters, cursor?: string): Promise<ReservationPage> {
+    const response = await api.get<ReservationResponse[]>('/admin/reservations', {
+      params: {
+        from: filters.from || undefined,
+        to: filters.to || undefined,
+        status: filters.status || undefined,
+        slotId: filters.slotId,
+        username: filters.username?.trim() || undefined,
+        cursor,
+        limit: PAGE_SIZE,
+      },
+    });
+    return {
+      reservations: response.data,
+      nextCursor: response.headers['x-next-cursor'] || undefined,
+    };
   },
 
   /**